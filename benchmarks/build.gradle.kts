@@ -0,0 +1,24 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+description = "JMH benchmarks for Generic Avro Reflect and its Kafka Streams Serde."
+
+repositories {
+    maven(url = "https://packages.confluent.io/maven/")
+}
+
+// benchmarks reuse the test classes of generic-avro-reflect
+evaluationDependsOn(":generic-avro-reflect")
+
+dependencies {
+    "jmh"(project(":generic-avro-reflect"))
+    "jmh"(project(":generic-avro-reflect").the<SourceSetContainer>()["test"].output)
+    "jmh"(project(":kafka-streams-reflect-avro-serde"))
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
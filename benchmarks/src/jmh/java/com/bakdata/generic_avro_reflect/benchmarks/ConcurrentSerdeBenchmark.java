@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.generic_avro_reflect.benchmarks;
+
+import com.bakdata.kafka_streams.reflect_avro_serde.ReflectAvroSerde;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the throughput of a single {@link ReflectAvroSerde} shared by an increasing number of threads. As all
+ * threads use their own encoders and decoders and all caches are non-blocking, the throughput should scale nearly
+ * linearly up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentSerdeBenchmark {
+    @Param({"VALUE_CLASS", "NESTED_GENERIC_MAP_LIST_VALUE_CLASS"})
+    public Fixture fixture;
+    private Object instance;
+    private ReflectAvroSerde<Object> serde;
+
+    @Setup
+    public void setup() {
+        this.instance = this.fixture.create();
+        this.serde = new ReflectAvroSerde<>(new MockSchemaRegistryClient());
+        this.serde.configure(SerdeBenchmark.CONFIGS, false);
+        // Register the schema before measuring
+        this.roundTrip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.serde.close();
+    }
+
+    private Object roundTrip() {
+        final byte[] serialized = this.serde.serializer().serialize(SerdeBenchmark.TOPIC, this.instance);
+        return this.serde.deserializer().deserialize(SerdeBenchmark.TOPIC, serialized);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object roundTrip1() {
+        return this.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Object roundTrip2() {
+        return this.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object roundTrip4() {
+        return this.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object roundTripMax() {
+        return this.roundTrip();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.generic_avro_reflect.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.Reflect2Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures writing and reading of instances with the datum writers and readers created by {@link Reflect2Data}.
+ */
+@State(Scope.Thread)
+public class DatumBenchmark {
+    @Param
+    public Fixture fixture;
+    private Object instance;
+    private DatumWriter<Object> writer;
+    private DatumReader<Object> reader;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private BinaryEncoder encoder = null;
+    private BinaryDecoder decoder = null;
+    private byte[] encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        final Reflect2Data data = Reflect2Data.get();
+        this.instance = this.fixture.create();
+        final Schema schema = data.getSchema(this.instance);
+        this.writer = data.createDatumWriter(schema);
+        this.reader = data.createDatumReader(schema);
+        this.encoded = this.write();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        this.out.reset();
+        this.encoder = EncoderFactory.get().binaryEncoder(this.out, this.encoder);
+        this.writer.write(this.instance, this.encoder);
+        this.encoder.flush();
+        return this.out.toByteArray();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        this.decoder = DecoderFactory.get().binaryDecoder(this.encoded, this.decoder);
+        return this.reader.read(null, this.decoder);
+    }
+
+    @Benchmark
+    public Object roundTrip() throws IOException {
+        this.decoder = DecoderFactory.get().binaryDecoder(this.write(), this.decoder);
+        return this.reader.read(null, this.decoder);
+    }
+}
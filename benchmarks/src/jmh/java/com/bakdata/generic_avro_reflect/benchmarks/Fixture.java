@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.generic_avro_reflect.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.reflect.data.GenericClass;
+import org.apache.avro.reflect.data.GenericValueMapClass;
+import org.apache.avro.reflect.data.MultipleGenericsWithExtendsClass;
+import org.apache.avro.reflect.data.NestedGenericMapListValueClass;
+import org.apache.avro.reflect.data.NestedGenericValueMapClass;
+import org.apache.avro.reflect.data.NestedValueClass;
+import org.apache.avro.reflect.data.ValueClass;
+
+/**
+ * Instances of the test classes of generic-avro-reflect, ranging from flat value classes to deeply nested generics.
+ */
+public enum Fixture {
+    VALUE_CLASS {
+        @Override
+        Object create() {
+            return new ValueClass(42, "value");
+        }
+    },
+    NESTED_VALUE_CLASS {
+        @Override
+        Object create() {
+            return new NestedValueClass(13, new ValueClass(42, "value"));
+        }
+    },
+    GENERIC_CLASS {
+        @Override
+        Object create() {
+            return new GenericClass<>("generic");
+        }
+    },
+    MULTIPLE_GENERICS_WITH_EXTENDS_CLASS {
+        @Override
+        Object create() {
+            return new MultipleGenericsWithExtendsClass<>(1L, "generic");
+        }
+    },
+    NESTED_GENERIC_VALUE_MAP_CLASS {
+        @Override
+        Object create() {
+            return new NestedGenericValueMapClass<>(new GenericValueMapClass<>(Map.of("key", 10)));
+        }
+    },
+    NESTED_GENERIC_MAP_LIST_VALUE_CLASS {
+        @Override
+        Object create() {
+            return new NestedGenericMapListValueClass<>(new HashMap<>(Map.of("outer", new HashMap<>(Map.of("inner",
+                    new ArrayList<>(List.of(new GenericClass<>(1.0f))))))), new GenericClass<>(2.0f),
+                    new GenericClass<>(3.0f));
+        }
+    },
+    LIST_OF_GENERIC_CLASS {
+        @Override
+        Object create() {
+            return new ArrayList<>(List.of(new GenericClass<>(1), new GenericClass<>(2), new GenericClass<>(3)));
+        }
+    };
+
+    abstract Object create();
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.generic_avro_reflect.benchmarks;
+
+import com.bakdata.kafka_streams.reflect_avro_serde.ReflectAvroDeserializer;
+import com.bakdata.kafka_streams.reflect_avro_serde.ReflectAvroSerializer;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the throughput of {@link ReflectAvroSerializer} and {@link ReflectAvroDeserializer} with dynamically
+ * inferred schemas, including the lookups in an in-memory schema registry.
+ */
+@State(Scope.Benchmark)
+public class SerdeBenchmark {
+    static final String TOPIC = "benchmark";
+    static final Map<String, Object> CONFIGS =
+            Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "http://localhost:8081");
+
+    @Param
+    public Fixture fixture;
+    private Object instance;
+    private ReflectAvroSerializer<Object> serializer;
+    private ReflectAvroDeserializer<Object> deserializer;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() {
+        final SchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+        this.instance = this.fixture.create();
+        this.serializer = new ReflectAvroSerializer<>(schemaRegistryClient);
+        this.serializer.configure(CONFIGS, false);
+        this.deserializer = new ReflectAvroDeserializer<>(schemaRegistryClient);
+        this.deserializer.configure(CONFIGS, false);
+        this.serialized = this.serializer.serialize(TOPIC, this.instance);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.serializer.close();
+        this.deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return this.serializer.serialize(TOPIC, this.instance);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return this.deserializer.deserialize(TOPIC, this.serialized);
+    }
+}
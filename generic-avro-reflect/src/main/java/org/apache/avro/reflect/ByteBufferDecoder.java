@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Decoder of the Avro binary encoding that reads in place from a {@link ByteBuffer}, e.g., a direct or memory-mapped
+ * buffer, instead of copying it into a byte array first. It is meant to be reused per thread via {@link
+ * #configure(ByteBuffer)}. Unlike {@link org.apache.avro.io.BinaryDecoder}, it exposes its position, so that
+ * encoded values can be revisited.
+ */
+public final class ByteBufferDecoder extends Decoder {
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    /**
+     * Reads from the remaining bytes of the buffer without changing its position.
+     */
+    public ByteBufferDecoder configure(final ByteBuffer buffer) {
+        // Floats and doubles are encoded little-endian
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        return this;
+    }
+
+    /**
+     * Returns the position relative to the position of the buffer when this decoder was configured.
+     */
+    public int position() {
+        return this.buffer.position();
+    }
+
+    public void position(final int position) {
+        this.buffer.position(position);
+    }
+
+    @Override
+    public void readNull() {
+        // nulls are not encoded
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return this.buffer.get() == 1;
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        int n = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = this.buffer.get() & 0xff;
+            n |= (b & 0x7f) << shift;
+            if (b < 0x80) {
+                return (n >>> 1) ^ -(n & 1);
+            }
+        }
+        throw new IOException("Invalid int encoding");
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        long n = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final long b = this.buffer.get() & 0xff;
+            n |= (b & 0x7f) << shift;
+            if (b < 0x80) {
+                return (n >>> 1) ^ -(n & 1);
+            }
+        }
+        throw new IOException("Invalid long encoding");
+    }
+
+    @Override
+    public float readFloat() {
+        return this.buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() {
+        return this.buffer.getDouble();
+    }
+
+    @Override
+    public Utf8 readString(final Utf8 old) throws IOException {
+        final int length = this.readLength();
+        final Utf8 result = old != null ? old : new Utf8();
+        result.setByteLength(length);
+        this.buffer.get(result.getBytes(), 0, length);
+        return result;
+    }
+
+    @Override
+    public String readString() throws IOException {
+        final byte[] bytes = new byte[this.readLength()];
+        this.buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        this.skip(this.readLength());
+    }
+
+    @Override
+    public ByteBuffer readBytes(final ByteBuffer old) throws IOException {
+        final int length = this.readLength();
+        final ByteBuffer result = old != null && old.capacity() >= length ? old : ByteBuffer.allocate(length);
+        result.clear().limit(length);
+        final ByteBuffer bytes = this.buffer.slice().limit(length);
+        result.put(bytes).flip();
+        this.skip(length);
+        return result;
+    }
+
+    @Override
+    public void skipBytes() throws IOException {
+        this.skip(this.readLength());
+    }
+
+    @Override
+    public void readFixed(final byte[] bytes, final int start, final int length) {
+        this.buffer.get(bytes, start, length);
+    }
+
+    @Override
+    public void skipFixed(final int length) {
+        this.skip(length);
+    }
+
+    @Override
+    public int readEnum() throws IOException {
+        return this.readInt();
+    }
+
+    @Override
+    public long readArrayStart() throws IOException {
+        return this.readItemCount();
+    }
+
+    @Override
+    public long arrayNext() throws IOException {
+        return this.readItemCount();
+    }
+
+    @Override
+    public long skipArray() throws IOException {
+        return this.skipItems();
+    }
+
+    @Override
+    public long readMapStart() throws IOException {
+        return this.readItemCount();
+    }
+
+    @Override
+    public long mapNext() throws IOException {
+        return this.readItemCount();
+    }
+
+    @Override
+    public long skipMap() throws IOException {
+        return this.skipItems();
+    }
+
+    @Override
+    public int readIndex() throws IOException {
+        return this.readInt();
+    }
+
+    private int readLength() throws IOException {
+        final int length = this.readInt();
+        if (length < 0 || length > this.buffer.remaining()) {
+            throw new IOException("Invalid length " + length + " with " + this.buffer.remaining() + " bytes left");
+        }
+        return length;
+    }
+
+    /**
+     * Reads the number of items of the next block, whose size in bytes is also encoded if the count is negative.
+     */
+    private long readItemCount() throws IOException {
+        final long count = this.readLong();
+        if (count < 0) {
+            this.readLong();
+            return -count;
+        }
+        return count;
+    }
+
+    /**
+     * Skips blocks whose size in bytes is encoded and returns the item count of the first block that must be skipped
+     * item by item.
+     */
+    private long skipItems() throws IOException {
+        long count = this.readLong();
+        while (count < 0) {
+            final long size = this.readLong();
+            if (size < 0 || size > this.buffer.remaining()) {
+                throw new IOException("Invalid block size " + size);
+            }
+            this.skip((int) size);
+            count = this.readLong();
+        }
+        return count;
+    }
+
+    private void skip(final int length) {
+        this.buffer.position(this.buffer.position() + length);
+    }
+}
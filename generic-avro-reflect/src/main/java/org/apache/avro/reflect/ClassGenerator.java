@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.Schema;
+import org.mdkt.compiler.InMemoryJavaCompiler;
+
+/**
+ * Compiles the sources of generated datum writers, datum readers, and lazy views and hands over their bindings.
+ */
+final class ClassGenerator {
+    static final String PACKAGE = "org.apache.avro.reflect.gen";
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final Map<Class<?>, Schema.Type> PRIMITIVES = Map.of(
+            int.class, Schema.Type.INT,
+            long.class, Schema.Type.LONG,
+            float.class, Schema.Type.FLOAT,
+            double.class, Schema.Type.DOUBLE,
+            boolean.class, Schema.Type.BOOLEAN,
+            String.class, Schema.Type.STRING);
+
+    private ClassGenerator() {
+    }
+
+    static String nextSimpleName(final Class<?> clazz, final String suffix) {
+        return clazz.getSimpleName() + "$$" + suffix + COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Compiles and initializes the class with the given simple name in the package of generated classes. The class is
+     * compiled against and linked with the record class, which may be loaded by another loader than this library,
+     * e.g., by a plugin loader.
+     */
+    static Class<?> compile(final String simpleName, final String source, final GeneratedBindings bindings,
+            final Class<?> recordClass) throws Exception {
+        final String className = PACKAGE + "." + simpleName;
+        GeneratedBindings.offer(className, bindings);
+        try {
+            final Class<?> generatedClass = InMemoryJavaCompiler.newInstance()
+                    .useParentClassLoader(getParentClassLoader(recordClass))
+                    .useOptions("-classpath", getClassPath(recordClass))
+                    .ignoreWarnings()
+                    .compile(className, source);
+            // Initialize while the bindings are offered
+            return Class.forName(className, true, generatedClass.getClassLoader());
+        } finally {
+            GeneratedBindings.withdraw(className);
+        }
+    }
+
+    /**
+     * Returns whether values of the field type and schema can be encoded and decoded with direct {@link
+     * org.apache.avro.io.Encoder} and {@link org.apache.avro.io.Decoder} calls.
+     */
+    static boolean isPrimitive(final Class<?> fieldType, final Schema schema) {
+        return PRIMITIVES.get(fieldType) == schema.getType();
+    }
+
+    /**
+     * Returns the suffix of the encoder and decoder methods of a primitive schema type, e.g., {@code Int} for {@link
+     * org.apache.avro.io.Encoder#writeInt(int)}.
+     */
+    static String getPrimitiveName(final Schema.Type type) {
+        switch (type) {
+            case INT:
+                return "Int";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            case BOOLEAN:
+                return "Boolean";
+            case STRING:
+                return "String";
+            default:
+                throw new IllegalArgumentException("No direct encoder call for " + type);
+        }
+    }
+
+    /**
+     * Finds the field that {@link ReflectData} maps to the schema field of the given name and makes it accessible.
+     */
+    static Field getField(final Class<?> clazz, final String name) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+                if (isIgnored(field) || !name.equals(getFieldName(field))) {
+                    continue;
+                }
+                // Custom encodings and stringable fields are only supported by the reflective writer and reader
+                if (field.isAnnotationPresent(AvroEncode.class) || field.isAnnotationPresent(Stringable.class)) {
+                    throw new IllegalArgumentException("Unsupported annotation on field " + field);
+                }
+                if (!field.trySetAccessible()) {
+                    throw new IllegalArgumentException("Cannot access field " + field);
+                }
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " in " + clazz);
+    }
+
+    static boolean isIgnored(final Field field) {
+        return (field.getModifiers() & (Modifier.TRANSIENT | Modifier.STATIC)) != 0
+                || field.isAnnotationPresent(AvroIgnore.class);
+    }
+
+    private static String getFieldName(final Field field) {
+        final AvroName avroName = field.getAnnotation(AvroName.class);
+        return avroName == null ? field.getName() : avroName.value();
+    }
+
+    /**
+     * Returns the loader of the record class if it resolves this library to the same classes, or else a loader that
+     * resolves the classes of the record class first and those of this library otherwise.
+     */
+    private static ClassLoader getParentClassLoader(final Class<?> recordClass) {
+        final ClassLoader library = GeneratedBindings.class.getClassLoader();
+        final ClassLoader records = recordClass.getClassLoader();
+        if (records == null || records == library) {
+            return library;
+        }
+        try {
+            if (Class.forName(GeneratedBindings.class.getName(), false, records) == GeneratedBindings.class) {
+                return records;
+            }
+        } catch (final ClassNotFoundException e) {
+            // the record loader does not see this library
+        }
+        return new BridgeClassLoader(records, library);
+    }
+
+    /**
+     * Returns the class path of the running application including the jars of Avro, this library, and the record
+     * class and its superclasses, which may not be listed in {@code java.class.path} if they are loaded by another
+     * class loader.
+     */
+    private static String getClassPath(final Class<?> recordClass) {
+        final Set<String> entries =
+                new LinkedHashSet<>(Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+        final List<Class<?>> classes = new ArrayList<>(List.of(GeneratedBindings.class, Schema.class));
+        for (Class<?> c = recordClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            classes.add(c);
+        }
+        for (final Class<?> clazz : classes) {
+            final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                continue;
+            }
+            try {
+                entries.add(Paths.get(codeSource.getLocation().toURI()).toString());
+            } catch (final URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+                // e.g., nested jars, which cannot be passed to the compiler
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Delegates to its parent first and to a fallback loader otherwise.
+     */
+    private static final class BridgeClassLoader extends ClassLoader {
+        private final ClassLoader fallback;
+
+        private BridgeClassLoader(final ClassLoader parent, final ClassLoader fallback) {
+            super(parent);
+            this.fallback = fallback;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            return this.fallback.loadClass(name);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Generates a {@link GeneratedDatumReader} for a record class and its schema. Fields of primitive and string types
+ * are read with direct {@link org.apache.avro.io.Decoder} calls; all other fields are delegated to a reflective reader
+ * of the field schema.
+ *
+ * <p>Records are created through the first applicable of the following:</p>
+ * <ol>
+ * <li>a constructor whose parameters are named after all fields, either by {@link ConstructorProperties} or by
+ * compiling with {@code -parameters},</li>
+ * <li>a Lombok builder, i.e., a static {@code builder()} method returning a builder with a method per field,</li>
+ * <li>direct field stores into an instance created by {@link ReflectData#newRecord(Object, Schema)}.</li>
+ * </ol>
+ *
+ * <p>Constructors and builders run for every read record, including any validation they perform. They always create
+ * new records, so only readers with field stores reuse the given record.</p>
+ */
+@RequiredArgsConstructor
+class DatumReaderGenerator {
+    private final ReflectData data;
+
+    @SuppressWarnings("unchecked")
+    <T> GeneratedDatumReader<T> generate(final Schema schema) throws Exception {
+        if (schema.getType() != Schema.Type.RECORD || schema.getLogicalType() != null) {
+            throw new IllegalArgumentException("Can only generate readers for plain records, not " + schema);
+        }
+        final Class<?> clazz = this.data.getClass(schema);
+        if (clazz == null || IndexedRecord.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("Cannot generate reader for class " + clazz);
+        }
+
+        final GeneratedBindings bindings = new GeneratedBindings();
+        final List<Schema.Field> schemaFields = schema.getFields();
+        final Field[] fields = new Field[schemaFields.size()];
+        final Class<?>[] localTypes = new Class<?>[schemaFields.size()];
+        final String[] decoders = new String[schemaFields.size()];
+        for (final Schema.Field schemaField : schemaFields) {
+            final int pos = schemaField.pos();
+            final Field field = ClassGenerator.getField(clazz, schemaField.name());
+            fields[pos] = field;
+            if (ClassGenerator.isPrimitive(field.getType(), schemaField.schema())) {
+                localTypes[pos] = field.getType();
+                decoders[pos] = "in.read" + ClassGenerator.getPrimitiveName(schemaField.schema().getType()) + "()";
+            } else if (field.getType().isPrimitive()) {
+                // e.g., short fields, which are decoded as Integer by the reflective reader
+                throw new IllegalArgumentException("Cannot read field " + field + " from " + schemaField.schema());
+            } else {
+                localTypes[pos] = Object.class;
+                decoders[pos] = "R" + pos + ".read(null, in)";
+                bindings.bind("DatumReader<Object>", "R" + pos, this.data.createDatumReader(schemaField.schema()));
+            }
+        }
+
+        final MethodHandle constructor = findConstructor(clazz, fields, localTypes);
+        String body = constructor != null ? createWithConstructor(bindings, constructor, decoders)
+                : createWithBuilder(bindings, clazz, fields, localTypes, decoders);
+        final boolean reusingRecords = body == null;
+        if (reusingRecords) {
+            body = this.createWithFieldStores(bindings, schema, clazz, fields, localTypes, decoders);
+        }
+
+        final String simpleName = ClassGenerator.nextSimpleName(clazz, "DatumReader");
+        final String source = "package " + ClassGenerator.PACKAGE + ";\n\n"
+                + "import java.lang.invoke.MethodHandle;\n"
+                + "import org.apache.avro.Schema;\n"
+                + "import org.apache.avro.io.DatumReader;\n"
+                + "import org.apache.avro.io.Decoder;\n"
+                + "import org.apache.avro.reflect.GeneratedBindings;\n"
+                + "import org.apache.avro.reflect.GeneratedDatumReader;\n\n"
+                + "public final class " + simpleName + " extends GeneratedDatumReader<Object> {\n"
+                + bindings.getDeclarations() + "\n"
+                + "    public " + simpleName + "(final Schema schema) {\n"
+                + "        super(schema, " + reusingRecords + ");\n"
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    protected Object readRecord(final Object reuse, final Decoder in) throws Throwable {\n"
+                + body
+                + "    }\n"
+                + "}\n";
+
+        final Class<?> readerClass = ClassGenerator.compile(simpleName, source, bindings, clazz);
+        return (GeneratedDatumReader<T>) readerClass.getConstructor(Schema.class).newInstance(schema);
+    }
+
+    /**
+     * Finds a constructor whose parameters are named after all fields of the class and adapts it to take the fields
+     * in schema order. Parameter types alone do not suffice, as they cannot tell apart fields of the same type.
+     *
+     * @return null if there is no such constructor
+     */
+    private static MethodHandle findConstructor(final Class<?> clazz, final Field[] fields,
+            final Class<?>[] localTypes) throws IllegalAccessException {
+        for (Class<?> c = clazz.getSuperclass(); c != null; c = c.getSuperclass()) {
+            if (Arrays.stream(c.getDeclaredFields()).anyMatch(field -> !ClassGenerator.isIgnored(field))) {
+                // Constructors of subclasses cannot be matched against the fields of their superclasses
+                return null;
+            }
+        }
+        if (Arrays.stream(clazz.getDeclaredFields()).filter(field -> !ClassGenerator.isIgnored(field)).count()
+                != fields.length) {
+            return null;
+        }
+
+        final Map<String, Integer> positions = new HashMap<>();
+        for (int pos = 0; pos < fields.length; pos++) {
+            positions.put(fields[pos].getName(), pos);
+        }
+        for (final Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            final int[] reorder = matchParameters(constructor, fields, positions);
+            if (reorder == null) {
+                continue;
+            }
+            final Class<?>[] parameterLocalTypes = new Class<?>[reorder.length];
+            for (int i = 0; i < reorder.length; i++) {
+                parameterLocalTypes[i] = localTypes[reorder[i]];
+            }
+            final MethodHandle handle = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup())
+                    .unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class, parameterLocalTypes));
+            return MethodHandles.permuteArguments(handle, MethodType.methodType(Object.class, localTypes), reorder);
+        }
+        return null;
+    }
+
+    /**
+     * @return the schema position of the field passed to each parameter, or null if the parameters are not named
+     * after the fields
+     */
+    private static int[] matchParameters(final Constructor<?> constructor, final Field[] fields,
+            final Map<String, Integer> positions) {
+        if (constructor.isSynthetic() || constructor.getParameterCount() != fields.length) {
+            return null;
+        }
+        final String[] names = getParameterNames(constructor);
+        if (names == null || names.length != fields.length) {
+            return null;
+        }
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        final int[] reorder = new int[names.length];
+        final boolean[] matched = new boolean[fields.length];
+        for (int i = 0; i < names.length; i++) {
+            final Integer pos = positions.get(names[i]);
+            if (pos == null || matched[pos] || fields[pos].getType() != parameterTypes[i]) {
+                return null;
+            }
+            matched[pos] = true;
+            reorder[i] = pos;
+        }
+        return reorder;
+    }
+
+    /**
+     * @return null if the parameter names are not available at runtime
+     */
+    private static String[] getParameterNames(final Constructor<?> constructor) {
+        final ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null) {
+            return properties.value();
+        }
+        final Parameter[] parameters = constructor.getParameters();
+        if (parameters.length > 0 && !parameters[0].isNamePresent()) {
+            return null;
+        }
+        return Arrays.stream(parameters).map(Parameter::getName).toArray(String[]::new);
+    }
+
+    private static String createWithConstructor(final GeneratedBindings bindings, final MethodHandle constructor,
+            final String[] decoders) {
+        bindings.bind("MethodHandle", "CREATE", constructor);
+        final StringBuilder body = new StringBuilder();
+        final List<String> locals = new ArrayList<>();
+        for (int pos = 0; pos < decoders.length; pos++) {
+            body.append(String.format("        final %s v%d = %s;%n",
+                    constructor.type().parameterType(pos).getSimpleName(), pos, decoders[pos]));
+            locals.add("v" + pos);
+        }
+        body.append(String.format("        return (Object) CREATE.invokeExact(%s);%n", String.join(", ", locals)));
+        return body.toString();
+    }
+
+    /**
+     * Creates the record through a Lombok builder.
+     *
+     * @return null if the class has no builder with a method for every field
+     */
+    private static String createWithBuilder(final GeneratedBindings bindings, final Class<?> clazz,
+            final Field[] fields, final Class<?>[] localTypes, final String[] decoders)
+            throws IllegalAccessException {
+        final Method builderMethod;
+        final Class<?> builderClass;
+        final Method buildMethod;
+        final Method[] setters = new Method[fields.length];
+        try {
+            builderMethod = clazz.getDeclaredMethod("builder");
+            builderClass = builderMethod.getReturnType();
+            buildMethod = builderClass.getDeclaredMethod("build");
+            for (int pos = 0; pos < fields.length; pos++) {
+                setters[pos] = builderClass.getDeclaredMethod(fields[pos].getName(), fields[pos].getType());
+            }
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+        if (!clazz.isAssignableFrom(buildMethod.getReturnType())) {
+            return null;
+        }
+
+        final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(builderClass, MethodHandles.lookup());
+        bindings.bind("MethodHandle", "BUILDER",
+                lookup.unreflect(builderMethod).asType(MethodType.methodType(Object.class)));
+        bindings.bind("MethodHandle", "BUILD",
+                lookup.unreflect(buildMethod).asType(MethodType.methodType(Object.class, Object.class)));
+        final StringBuilder body = new StringBuilder("        Object builder = (Object) BUILDER.invokeExact();\n");
+        for (int pos = 0; pos < fields.length; pos++) {
+            bindings.bind("MethodHandle", "S" + pos, lookup.unreflect(setters[pos])
+                    .asType(MethodType.methodType(Object.class, Object.class, localTypes[pos])));
+            body.append(String.format("        builder = (Object) S%d.invokeExact(builder, %s);%n", pos,
+                    decoders[pos]));
+        }
+        return body.append("        return (Object) BUILD.invokeExact(builder);\n").toString();
+    }
+
+    /**
+     * Creates the record with {@link ReflectData#newRecord(Object, Schema)}, which also reuses a given record, and
+     * sets all fields directly.
+     */
+    private String createWithFieldStores(final GeneratedBindings bindings, final Schema schema, final Class<?> clazz,
+            final Field[] fields, final Class<?>[] localTypes, final String[] decoders)
+            throws ReflectiveOperationException {
+        final MethodHandle newRecord = MethodHandles.lookup()
+                .findVirtual(SpecificData.class, "newRecord",
+                        MethodType.methodType(Object.class, Object.class, Schema.class))
+                .bindTo(this.data);
+        bindings.bind("MethodHandle", "NEW", MethodHandles.insertArguments(newRecord, 1, schema));
+        final StringBuilder body =
+                new StringBuilder("        final Object record = (Object) NEW.invokeExact(reuse);\n");
+        for (int pos = 0; pos < fields.length; pos++) {
+            bindings.bind("MethodHandle", "S" + pos, MethodHandles.lookup().unreflectSetter(fields[pos])
+                    .asType(MethodType.methodType(void.class, Object.class, localTypes[pos])));
+            body.append(String.format("        S%d.invokeExact(record, %s);%n", pos, decoders[pos]));
+        }
+        return body.append("        return record;\n").toString();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Generates a {@link GeneratedDatumWriter} for a record class and its schema. Fields of primitive and string types
+ * are written with direct {@link org.apache.avro.io.Encoder} calls; all other fields are delegated to a reflective
+ * writer of the field schema.
+ */
+@RequiredArgsConstructor
+class DatumWriterGenerator {
+    private final ReflectData data;
+
+    @SuppressWarnings("unchecked")
+    <T> GeneratedDatumWriter<T> generate(final Schema schema) throws Exception {
+        if (schema.getType() != Schema.Type.RECORD || schema.getLogicalType() != null) {
+            throw new IllegalArgumentException("Can only generate writers for plain records, not " + schema);
+        }
+        final Class<?> clazz = this.data.getClass(schema);
+        if (clazz == null || IndexedRecord.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("Cannot generate writer for class " + clazz);
+        }
+
+        final GeneratedBindings bindings = new GeneratedBindings();
+        final StringBuilder statements = new StringBuilder();
+        for (final Schema.Field schemaField : schema.getFields()) {
+            final int pos = schemaField.pos();
+            final Field field = ClassGenerator.getField(clazz, schemaField.name());
+            final MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            final Class<?> fieldType = field.getType();
+            if (ClassGenerator.isPrimitive(fieldType, schemaField.schema())) {
+                bindings.bind("MethodHandle", "G" + pos, getter.asType(MethodType.methodType(fieldType, Object.class)));
+                statements.append(String.format("        out.write%s((%s) G%d.invokeExact(datum));%n",
+                        ClassGenerator.getPrimitiveName(schemaField.schema().getType()), fieldType.getSimpleName(),
+                        pos));
+            } else {
+                bindings.bind("MethodHandle", "G" + pos,
+                        getter.asType(MethodType.methodType(Object.class, Object.class)));
+                bindings.bind("DatumWriter<Object>", "W" + pos, this.data.createDatumWriter(schemaField.schema()));
+                statements.append(
+                        String.format("        W%d.write((Object) G%d.invokeExact(datum), out);%n", pos, pos));
+            }
+        }
+
+        final String simpleName = ClassGenerator.nextSimpleName(clazz, "DatumWriter");
+        final String source = "package " + ClassGenerator.PACKAGE + ";\n\n"
+                + "import java.lang.invoke.MethodHandle;\n"
+                + "import org.apache.avro.Schema;\n"
+                + "import org.apache.avro.io.DatumWriter;\n"
+                + "import org.apache.avro.io.Encoder;\n"
+                + "import org.apache.avro.reflect.GeneratedBindings;\n"
+                + "import org.apache.avro.reflect.GeneratedDatumWriter;\n\n"
+                + "public final class " + simpleName + " extends GeneratedDatumWriter<Object> {\n"
+                + bindings.getDeclarations() + "\n"
+                + "    public " + simpleName + "(final Schema schema) {\n"
+                + "        super(schema);\n"
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    protected void writeFields(final Object datum, final Encoder out) throws Throwable {\n"
+                + statements
+                + "    }\n"
+                + "}\n";
+
+        final Class<?> writerClass = ClassGenerator.compile(simpleName, source, bindings, clazz);
+        return (GeneratedDatumWriter<T>) writerClass.getConstructor(Schema.class).newInstance(schema);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * Path from an instance to the value that binds one of the type variables of its class, compiled into a single
+ * {@link MethodHandle}. Intermediate {@code null} values short-circuit the path, in which case the type variable is
+ * bound to the {@link #getDefaultType() default type} of the last step.
+ *
+ * <p>A path is built from the values of one instance and therefore only applies to instances holding values of the
+ * same classes along the path. For other instances, {@link #SHAPE_MISMATCH} is returned.</p>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class EvidencePath {
+    static final Object SHAPE_MISMATCH = TypedValueAccessor.SHAPE_MISMATCH;
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle IDENTITY = MethodHandles.identity(Object.class);
+    private static final EvidencePath UNRESOLVED = new EvidencePath(
+            MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class), Object.class);
+    private static final EvidencePath INCOMPLETE = new EvidencePath(
+            MethodHandles.dropArguments(MethodHandles.constant(Object.class, SHAPE_MISMATCH), 0, Object.class),
+            Object.class);
+
+    static {
+        try {
+            IS_NULL = MethodHandles.lookup().findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle getter;
+    @Getter(AccessLevel.PACKAGE)
+    private final Type defaultType;
+
+    static EvidencePath compile(final List<TypedValueAccessor> accessors) {
+        MethodHandle getter = accessors.get(0).getGetter();
+        for (final TypedValueAccessor accessor : accessors.subList(1, accessors.size())) {
+            // null ? null : accessor(value)
+            getter = MethodHandles.filterReturnValue(getter,
+                    MethodHandles.guardWithTest(IS_NULL, IDENTITY, accessor.getGetter()));
+        }
+        return new EvidencePath(getter, accessors.get(accessors.size() - 1).getDefaultType());
+    }
+
+    /**
+     * Returns a path for type variables that cannot be bound from instances, which are thus bound to {@code Object}.
+     */
+    static EvidencePath unresolved() {
+        return UNRESOLVED;
+    }
+
+    /**
+     * Returns a path for type variables whose values are absent in the instance the path was searched in, e.g., as a
+     * field along the way is {@code null}. It does not apply to any instance, so that the search is repeated for
+     * instances that hold such values.
+     */
+    static EvidencePath incomplete() {
+        return INCOMPLETE;
+    }
+
+    /**
+     * @return the value at the end of this path, {@code null} if any value along the path is {@code null}, or
+     * {@link #SHAPE_MISMATCH} if this path does not apply to the instance
+     */
+    @SneakyThrows
+    Object getValue(final Object instance) {
+        return (Object) this.getter.invokeExact(instance);
+    }
+}
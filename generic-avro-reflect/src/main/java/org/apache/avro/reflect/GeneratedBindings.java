@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values that are bound to static final fields of a generated class, such as method handles and nested datum writers.
+ * Generated classes live in a separate class loader, so they claim their bindings in their static initializer with a
+ * lookup that proves their identity.
+ */
+public final class GeneratedBindings {
+    private static final Map<String, GeneratedBindings> PENDING = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> values = new HashMap<>();
+    private final StringBuilder declarations = new StringBuilder();
+
+    GeneratedBindings() {
+    }
+
+    static void offer(final String className, final GeneratedBindings bindings) {
+        PENDING.put(className, bindings);
+    }
+
+    static void withdraw(final String className) {
+        PENDING.remove(className);
+    }
+
+    /**
+     * Returns the bindings of the generated class. Called once from its static initializer with its own lookup, which
+     * only that class can create with private access.
+     */
+    public static GeneratedBindings claim(final MethodHandles.Lookup lookup) {
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0) {
+            throw new IllegalArgumentException("Bindings can only be claimed with private access, not " + lookup);
+        }
+        final String className = lookup.lookupClass().getName();
+        final GeneratedBindings bindings = PENDING.remove(className);
+        if (bindings == null) {
+            throw new IllegalStateException("No bindings for generated class " + className);
+        }
+        return bindings;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String name) {
+        return (T) this.values.get(name);
+    }
+
+    /**
+     * Declares a static final field of the given type in the generated class that is initialized with the value.
+     */
+    void bind(final String type, final String name, final Object value) {
+        this.values.put(name, value);
+        this.declarations.append(
+                String.format("    private static final %s %s = BINDINGS.get(\"%s\");%n", type, name, name));
+    }
+
+    /**
+     * Returns the declarations of the bound fields, preceded by the field holding the claimed bindings.
+     */
+    String getDeclarations() {
+        return "    private static final GeneratedBindings BINDINGS =\n"
+                + "            GeneratedBindings.claim(java.lang.invoke.MethodHandles.lookup());\n"
+                + this.declarations;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import lombok.Getter;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+
+/**
+ * Base class of the datum readers generated by {@link Reflect2Data#createGeneratedDatumReader(Schema, Schema)}. A
+ * generated reader is specialized on one record class and schema, decodes all fields into locals, and creates the
+ * record in one step.
+ *
+ * <p>Readers that create records through a constructor or builder always return new records and ignore the record to
+ * reuse, as reported by {@link #isReusingRecords()}. Such readers gain nothing from a {@link PooledDatumReader}.</p>
+ *
+ * <p>Generated classes live in a separate class loader and receive their constructors, setters, and nested readers
+ * through {@link GeneratedBindings}.</p>
+ *
+ * @param <T> the record class
+ */
+public abstract class GeneratedDatumReader<T> implements DatumReader<T> {
+    @Getter
+    private final Schema schema;
+    @Getter
+    private final boolean reusingRecords;
+
+    protected GeneratedDatumReader(final Schema schema, final boolean reusingRecords) {
+        this.schema = schema;
+        this.reusingRecords = reusingRecords;
+    }
+
+    @Override
+    public void setSchema(final Schema writer) {
+        if (!this.schema.equals(writer)) {
+            throw new AvroRuntimeException("Reader generated for " + this.schema.getFullName()
+                    + " cannot read schema " + writer);
+        }
+    }
+
+    @Override
+    public T read(final T reuse, final Decoder in) throws IOException {
+        try {
+            return this.readRecord(reuse, in);
+        } catch (final IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    protected abstract T readRecord(T reuse, Decoder in) throws Throwable;
+}
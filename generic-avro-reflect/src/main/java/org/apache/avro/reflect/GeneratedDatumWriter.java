@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import lombok.Getter;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+
+/**
+ * Base class of the datum writers generated by {@link Reflect2Data#createGeneratedDatumWriter(Schema)}. A generated
+ * writer is specialized on one record class and schema and writes all fields in straight-line code.
+ *
+ * <p>Generated classes live in a separate class loader and receive their field getters and nested writers
+ * through {@link GeneratedBindings}.</p>
+ *
+ * @param <T> the record class
+ */
+public abstract class GeneratedDatumWriter<T> implements DatumWriter<T> {
+    @Getter
+    private final Schema schema;
+
+    protected GeneratedDatumWriter(final Schema schema) {
+        this.schema = schema;
+    }
+
+    @Override
+    public void setSchema(final Schema root) {
+        if (!this.schema.equals(root)) {
+            throw new AvroRuntimeException("Writer generated for " + this.schema.getFullName()
+                    + " cannot write schema " + root);
+        }
+    }
+
+    @Override
+    public void write(final T datum, final Encoder out) throws IOException {
+        if (datum instanceof LazyRecord) {
+            final LazyRecord view = (LazyRecord) datum;
+            if (view.writeEncoded(this.schema, out)) {
+                return;
+            }
+            // Fields are read directly, which views only populate through their getters
+            view.decodeAll();
+        }
+        try {
+            this.writeFields(datum, out);
+        } catch (final IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    protected abstract void writeFields(T datum, Encoder out) throws Throwable;
+}
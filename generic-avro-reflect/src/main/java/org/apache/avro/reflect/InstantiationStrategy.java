@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.util.function.Supplier;
+import org.apache.avro.Schema;
+
+/**
+ * Creates instantiators for the record classes that {@link Reflect2Data#newRecord(Object, Schema)} reads into.
+ * Instantiators are resolved once per class and cached, so they should be cheap to invoke.
+ *
+ * @see Reflect2Data#addInstantiationStrategy(InstantiationStrategy)
+ */
+@FunctionalInterface
+public interface InstantiationStrategy {
+    /**
+     * Instantiates classes through their no-arg constructor, which may have any visibility.
+     */
+    static InstantiationStrategy noArgConstructor() {
+        return NoArgConstructorStrategy.INSTANCE;
+    }
+
+    /**
+     * Instantiates classes with Objenesis without calling any constructor.
+     */
+    static InstantiationStrategy objenesis() {
+        return ObjenesisStrategy.INSTANCE;
+    }
+
+    /**
+     * Returns an instantiator of the class.
+     *
+     * @return null if this strategy cannot instantiate the class
+     */
+    Supplier<?> getInstantiator(Class<?> clazz);
+}
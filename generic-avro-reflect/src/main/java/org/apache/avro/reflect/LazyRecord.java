@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+/**
+ * Lazy view of a record class over its encoded bytes, as created by {@link Reflect2Data#createLazyViewFactory(
+ * Schema, Schema)}. Each field is decoded when its getter is called for the first time.
+ *
+ * <p>The fields of a view are only populated through its getters. The writers of {@link Reflect2Data} handle views;
+ * other writers that read fields directly require {@link #decodeAll()} to be called first.</p>
+ */
+public interface LazyRecord {
+    /**
+     * Decodes all fields that have not been accessed yet, e.g., before the record is read by reflection.
+     */
+    void decodeAll();
+
+    /**
+     * Returns the schema of the encoded bytes if the view cannot have been modified, i.e., no field has been assigned
+     * and no mutable value, such as a list, has been decoded.
+     *
+     * @return null if the view may have been modified
+     */
+    Schema getUnmodifiedSchema();
+
+    /**
+     * Writes the encoded bytes unchanged if they have the schema and the view cannot have been modified.
+     *
+     * @return false if the view has to be written from its fields
+     * @see #getUnmodifiedSchema()
+     */
+    boolean writeEncoded(Schema schema, Encoder out) throws IOException;
+}
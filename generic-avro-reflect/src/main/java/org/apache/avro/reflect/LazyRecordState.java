@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+/**
+ * Encoded bytes of a {@link LazyRecord} and the fields that have already been decoded. The offsets of the fields are
+ * indexed as they are reached, so that each field is skipped at most once. Like the records themselves, the state is
+ * not thread-safe.
+ */
+public final class LazyRecordState {
+    private final Schema schema;
+    private final Schema[] fields;
+    private final ByteBuffer encoded;
+    private final ByteBufferDecoder decoder;
+    // Start offsets of the fields followed by the end offset of the record
+    private final int[] offsets;
+    private final boolean[] loaded;
+    // Number of fields whose end offset is indexed
+    private int reached = 0;
+    // Whether no field has been assigned and no mutable value has been decoded
+    private boolean unmodified = true;
+
+    LazyRecordState(final Schema schema, final Schema[] fields, final ByteBuffer encoded) {
+        this.schema = schema;
+        this.fields = fields;
+        this.encoded = encoded.slice();
+        this.decoder = new ByteBufferDecoder().configure(this.encoded);
+        this.offsets = new int[fields.length + 1];
+        this.loaded = new boolean[fields.length];
+    }
+
+    public boolean isLoaded(final int field) {
+        return this.loaded[field];
+    }
+
+    /**
+     * Returns the decoder positioned at the field, or at the end of the record for the number of fields, after
+     * skipping all fields before it that have not been reached.
+     */
+    public Decoder seek(final int field) throws IOException {
+        if (this.reached < field) {
+            this.decoder.position(this.offsets[this.reached]);
+            for (; this.reached < field; this.reached++) {
+                GenericDatumReader.skip(this.fields[this.reached], this.decoder);
+                this.offsets[this.reached + 1] = this.decoder.position();
+            }
+        }
+        this.decoder.position(this.offsets[field]);
+        return this.decoder;
+    }
+
+    /**
+     * Marks the field as decoded with the decoder of {@link #seek(int)}, which is now positioned after it.
+     */
+    public void decoded(final int field) {
+        this.loaded[field] = true;
+        if (field == this.reached) {
+            this.offsets[field + 1] = this.decoder.position();
+            this.reached++;
+        }
+        if (!isImmutable(this.fields[field])) {
+            // The value may be modified without the setter
+            this.unmodified = false;
+        }
+    }
+
+    /**
+     * Marks the field as assigned by a setter, so that it is not decoded anymore.
+     */
+    public void assigned(final int field) {
+        this.loaded[field] = true;
+        this.unmodified = false;
+    }
+
+    /**
+     * @see LazyRecord#getUnmodifiedSchema()
+     */
+    public Schema getUnmodifiedSchema() {
+        return this.unmodified ? this.schema : null;
+    }
+
+    /**
+     * @see LazyRecord#writeEncoded(Schema, Encoder)
+     */
+    public boolean writeEncoded(final Schema schema, final Encoder out) throws IOException {
+        if (!this.unmodified || schema != this.schema && !schema.equals(this.schema)) {
+            return false;
+        }
+        this.seek(this.fields.length);
+        out.writeFixed(this.encoded.duplicate().position(0).limit(this.offsets[this.fields.length]));
+        return true;
+    }
+
+    private static boolean isImmutable(final Schema schema) {
+        switch (schema.getType()) {
+            case NULL:
+            case BOOLEAN:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+            case ENUM:
+                return true;
+            case UNION:
+                return schema.getTypes().stream().allMatch(LazyRecordState::isImmutable);
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Generates a subclass of a record class that implements {@link LazyRecord}. It overrides the getter of every field
+ * to decode the field on its first call, and the setter, if any, to mark the field as assigned. Fields of primitive
+ * and string types are decoded with direct {@link org.apache.avro.io.Decoder} calls; all other fields are delegated
+ * to a reflective reader of the field schema.
+ *
+ * <p>Views can only be generated for public, non-final classes with an accessible no-arg constructor and public,
+ * non-final getters following the bean conventions for all fields, as generated by Lombok's {@code @Data}. Methods
+ * of the class must access its fields through these getters.</p>
+ */
+@RequiredArgsConstructor
+class LazyViewGenerator {
+    private static final String GETTER = "    @Override\n"
+            + "    public %1$s %2$s() {\n"
+            + "        if (!this.$state.isLoaded(%3$d)) {\n"
+            + "            try {\n"
+            + "                final Decoder in = this.$state.seek(%3$d);\n"
+            + "                S%3$d.invokeExact((Object) this, %4$s);\n"
+            + "                this.$state.decoded(%3$d);\n"
+            + "            } catch (final Throwable e) {\n"
+            + "                throw new AvroRuntimeException(\"Cannot decode field %5$s\", e);\n"
+            + "            }\n"
+            + "        }\n"
+            + "        return super.%2$s();\n"
+            + "    }\n\n";
+    private static final String SETTER = "    @Override\n"
+            + "    public void %1$s(final %2$s value) {\n"
+            + "        this.$state.assigned(%3$d);\n"
+            + "        super.%1$s(value);\n"
+            + "    }\n\n";
+    private final ReflectData data;
+
+    @SuppressWarnings("unchecked")
+    <T> LazyViewFactory<T> generate(final Schema schema) throws Exception {
+        if (schema.getType() != Schema.Type.RECORD || schema.getLogicalType() != null) {
+            throw new IllegalArgumentException("Can only generate views of plain records, not " + schema);
+        }
+        final Class<?> clazz = this.data.getClass(schema);
+        checkExtensible(clazz);
+
+        final GeneratedBindings bindings = new GeneratedBindings();
+        final List<Schema.Field> schemaFields = schema.getFields();
+        final Schema[] fieldSchemas = new Schema[schemaFields.size()];
+        final StringBuilder methods = new StringBuilder();
+        final StringBuilder decodeAll = new StringBuilder();
+        for (final Schema.Field schemaField : schemaFields) {
+            final int pos = schemaField.pos();
+            fieldSchemas[pos] = schemaField.schema();
+            final Field field = ClassGenerator.getField(clazz, schemaField.name());
+            final Class<?> localType;
+            final String decoder;
+            if (ClassGenerator.isPrimitive(field.getType(), schemaField.schema())) {
+                localType = field.getType();
+                decoder = "in.read" + ClassGenerator.getPrimitiveName(schemaField.schema().getType()) + "()";
+            } else if (field.getType().isPrimitive()) {
+                throw new IllegalArgumentException("Cannot read field " + field + " from " + schemaField.schema());
+            } else {
+                localType = Object.class;
+                decoder = "R" + pos + ".read(null, in)";
+                bindings.bind("DatumReader<Object>", "R" + pos, this.data.createDatumReader(schemaField.schema()));
+            }
+            bindings.bind("MethodHandle", "S" + pos, MethodHandles.lookup().unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, localType)));
+
+            final Method getter = findGetter(clazz, field);
+            methods.append(String.format(GETTER, field.getType().getCanonicalName(), getter.getName(), pos, decoder,
+                    schemaField.name()));
+            decodeAll.append(String.format("        this.%s();%n", getter.getName()));
+            final Method setter = findSetter(clazz, field);
+            if (setter != null) {
+                methods.append(String.format(SETTER, setter.getName(), field.getType().getCanonicalName(), pos));
+            }
+        }
+
+        final String simpleName = ClassGenerator.nextSimpleName(clazz, "LazyView");
+        final String source = "package " + ClassGenerator.PACKAGE + ";\n\n"
+                + "import java.lang.invoke.MethodHandle;\n"
+                + "import org.apache.avro.AvroRuntimeException;\n"
+                + "import org.apache.avro.io.DatumReader;\n"
+                + "import org.apache.avro.io.Decoder;\n"
+                + "import org.apache.avro.reflect.GeneratedBindings;\n"
+                + "import org.apache.avro.reflect.LazyRecord;\n"
+                + "import org.apache.avro.reflect.LazyRecordState;\n\n"
+                + "public final class " + simpleName + " extends " + clazz.getCanonicalName()
+                + " implements LazyRecord {\n"
+                + bindings.getDeclarations()
+                // Transient, so that reflection does not consider the state a field of the record
+                + "    private final transient LazyRecordState $state;\n\n"
+                + "    public " + simpleName + "(final LazyRecordState state) {\n"
+                + "        this.$state = state;\n"
+                + "    }\n\n"
+                + methods
+                + "    @Override\n"
+                + "    public void decodeAll() {\n"
+                + decodeAll
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    public org.apache.avro.Schema getUnmodifiedSchema() {\n"
+                + "        return this.$state.getUnmodifiedSchema();\n"
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    public boolean writeEncoded(final org.apache.avro.Schema schema,\n"
+                + "            final org.apache.avro.io.Encoder out) throws java.io.IOException {\n"
+                + "        return this.$state.writeEncoded(schema, out);\n"
+                + "    }\n"
+                + "}\n";
+
+        final Class<?> viewClass = ClassGenerator.compile(simpleName, source, bindings, clazz);
+        final MethodHandle constructor = MethodHandles.lookup()
+                .findConstructor(viewClass, MethodType.methodType(void.class, LazyRecordState.class))
+                .asType(MethodType.methodType(Object.class, LazyRecordState.class));
+        return encoded -> {
+            try {
+                return (T) (Object) constructor.invokeExact(new LazyRecordState(schema, fieldSchemas, encoded));
+            } catch (final Throwable e) {
+                throw new AvroRuntimeException("Cannot create view of " + clazz, e);
+            }
+        };
+    }
+
+    private static void checkExtensible(final Class<?> clazz) throws NoSuchMethodException {
+        if (clazz == null || IndexedRecord.class.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException("Cannot generate view of class " + clazz);
+        }
+        final int modifiers = clazz.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isAbstract(modifiers)
+                || clazz.getEnclosingClass() != null && !Modifier.isStatic(modifiers)) {
+            throw new IllegalArgumentException("Cannot extend " + clazz);
+        }
+        final Constructor<?> constructor = clazz.getDeclaredConstructor();
+        if (!Modifier.isPublic(constructor.getModifiers()) && !Modifier.isProtected(constructor.getModifiers())) {
+            throw new IllegalArgumentException("No accessible no-arg constructor in " + clazz);
+        }
+    }
+
+    private static Method findGetter(final Class<?> clazz, final Field field) throws NoSuchMethodException {
+        final String suffix = capitalize(field.getName());
+        Method getter;
+        try {
+            getter = clazz.getMethod("get" + suffix);
+        } catch (final NoSuchMethodException e) {
+            if (field.getType() != boolean.class) {
+                throw e;
+            }
+            getter = clazz.getMethod("is" + suffix);
+        }
+        if (getter.getReturnType() != field.getType() || !isOverridable(getter)) {
+            throw new IllegalArgumentException("Cannot override getter " + getter);
+        }
+        return getter;
+    }
+
+    /**
+     * @return null if the field has no setter
+     */
+    private static Method findSetter(final Class<?> clazz, final Field field) {
+        final Method setter;
+        try {
+            setter = clazz.getMethod("set" + capitalize(field.getName()), field.getType());
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+        if (setter.getReturnType() != void.class || !isOverridable(setter)) {
+            throw new IllegalArgumentException("Cannot override setter " + setter);
+        }
+        return setter;
+    }
+
+    private static boolean isOverridable(final Method method) {
+        return (method.getModifiers() & (Modifier.FINAL | Modifier.STATIC)) == 0;
+    }
+
+    private static String capitalize(final String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class NoArgConstructorStrategy implements InstantiationStrategy {
+    static final InstantiationStrategy INSTANCE = new NoArgConstructorStrategy();
+
+    @Override
+    public Supplier<?> getInstantiator(final Class<?> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isArray() || clazz.isPrimitive()) {
+            return null;
+        }
+        try {
+            final Constructor<?> constructor = clazz.getDeclaredConstructor();
+            if (!constructor.trySetAccessible()) {
+                return null;
+            }
+            return new ConstructorInstantiator(MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class)));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            log.debug("No accessible no-arg constructor in {}", clazz, e);
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class ConstructorInstantiator implements Supplier<Object> {
+        private final MethodHandle constructor;
+
+        @Override
+        @SneakyThrows
+        public Object get() {
+            return (Object) this.constructor.invokeExact();
+        }
+    }
+}
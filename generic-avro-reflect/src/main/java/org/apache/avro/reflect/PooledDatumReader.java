@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+
+/**
+ * Reuses previously read records when no record to reuse is passed to {@link #read(Object, Decoder)}. Each thread
+ * cycles through a ring of records of the given size, such that a record is overwritten by the read after {@code
+ * size} further reads on the same thread. Lists and maps inside reused records are cleared and refilled.
+ *
+ * <p>Thus, records must not be retained longer than that, which is the case in stateless transformations that copy
+ * out the values they need.</p>
+ *
+ * @param <T> the record class
+ */
+public class PooledDatumReader<T> implements DatumReader<T> {
+    private final DatumReader<T> reader;
+    private final int size;
+    private final ThreadLocal<Ring> rings;
+
+    public PooledDatumReader(final DatumReader<T> reader, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive, but was " + size);
+        }
+        this.reader = reader;
+        this.size = size;
+        this.rings = ThreadLocal.withInitial(() -> new Ring(size));
+    }
+
+    @Override
+    public void setSchema(final Schema schema) {
+        this.reader.setSchema(schema);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T read(final T reuse, final Decoder in) throws IOException {
+        if (reuse != null) {
+            return this.reader.read(reuse, in);
+        }
+
+        final Ring ring = this.rings.get();
+        final T record = this.reader.read((T) ring.records[ring.next], in);
+        ring.records[ring.next] = record;
+        ring.next = (ring.next + 1) % this.size;
+        return record;
+    }
+
+    private static class Ring {
+        private final Object[] records;
+        private int next = 0;
+
+        private Ring(final int size) {
+            this.records = new Object[size];
+        }
+    }
+}
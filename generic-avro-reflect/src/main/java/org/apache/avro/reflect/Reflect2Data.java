@@ -24,48 +24,79 @@
 
 package org.apache.avro.reflect;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.reflect.TypeToken;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
-import lombok.EqualsAndHashCode;
-import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.LogicalType;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericRecord;
-import org.objenesis.Objenesis;
-import org.objenesis.ObjenesisStd;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
 
 /**
- * Not thread-safe!
+ * Infers Avro schemas of generic classes from the values of their instances.
+ *
+ * <p>Thread-safe: all inference state is kept per call and all caches are concurrent, so that a single instance can
+ * be shared across threads. {@link #get()} returns such a JVM-wide instance.</p>
  */
-@EqualsAndHashCode(callSuper = true)
 @Slf4j
 public class Reflect2Data extends ReflectData {
-    private final Deque<TypeToken<?>> parameterizedTypeStack = new LinkedList<>();
-    private final Objenesis objenesis = new ObjenesisStd(false);
-    private final Map<Class<?>, List<Function<Object, Type>>> evidenceFunctions = new HashMap<>();
-    private HashSet<TypeVariable<? extends Class<?>>> typeParameters = null;
+    private static final Reflect2Data INSTANCE = new Reflect2Data();
+    private static final TypeVariable<?> LIST_ELEMENT = List.class.getTypeParameters()[0];
+    private static final int MAX_ALTERNATIVE_EVIDENCE_PATHS = 16;
+    private static final int MAX_CACHED_SCHEMAS = 1000;
+
+    private final ThreadLocal<Deque<TypeToken<?>>> parameterizedTypeStack = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<Class<?>, Supplier<?>> factories = new ConcurrentHashMap<>();
+    private final List<InstantiationStrategy> instantiationStrategies =
+            new CopyOnWriteArrayList<>(List.of(InstantiationStrategy.objenesis()));
+    private final Map<Class<?>, Supplier<?>> instantiators = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EvidencePath[]> evidencePaths = new ConcurrentHashMap<>();
+    private final Map<EvidencePathKey, List<EvidencePath>> alternativeEvidencePaths = new ConcurrentHashMap<>();
+    private final Set<TypeVariable<?>> danglingTypeVariables = ConcurrentHashMap.newKeySet();
+    private final Cache<Type, Schema> schemaCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SCHEMAS)
+            .build();
+    private final Map<Class<?>, GenericField[]> genericFields = new ConcurrentHashMap<>();
+    private final ShapeCache shapeCache = new ShapeCache(MAX_CACHED_SCHEMAS);
+    private final ThreadLocal<ShapeCache.Shape> shape = ThreadLocal.withInitial(ShapeCache.Shape::new);
+    private final Map<Schema, DatumWriter<?>> generatedWriters = new ConcurrentHashMap<>();
+    private final DatumWriterGenerator writerGenerator = new DatumWriterGenerator(this);
+    private final Map<Schema, DatumReader<?>> generatedReaders = new ConcurrentHashMap<>();
+    private final DatumReaderGenerator readerGenerator = new DatumReaderGenerator(this);
+    private final Map<Schema, LazyViewFactory<?>> lazyViewFactories = new ConcurrentHashMap<>();
+    private final LazyViewGenerator lazyViewGenerator = new LazyViewGenerator(this);
 
     public static Reflect2Data get() {
-        return new Reflect2Data();
+        return INSTANCE;
     }
 
     @Override
@@ -81,146 +112,481 @@ public class Reflect2Data extends ReflectData {
         if (c == null) {
             return super.newRecord(old, schema);
         }
-        return (c.isInstance(old) ? old : this.objenesis.newInstance(c));
+        return (c.isInstance(old) ? old : this.getInstantiator(c).get());
+    }
+
+    /**
+     * Registers a factory that creates all new records of the class. Takes precedence over all instantiation
+     * strategies.
+     *
+     * <p>Registrations apply to this instance only. On the shared instance returned by {@link #get()}, they thus
+     * apply JVM-wide; use a separate instance to scope them.</p>
+     */
+    public <T> void registerFactory(final Class<T> clazz, final Supplier<? extends T> factory) {
+        this.factories.put(clazz, factory);
+        this.instantiators.remove(clazz);
+    }
+
+    /**
+     * Adds a strategy that is consulted before all previously added strategies when a class is instantiated for the
+     * first time. By default, classes are instantiated with Objenesis without calling any constructor; add {@link
+     * InstantiationStrategy#noArgConstructor()} to call no-arg constructors instead.
+     *
+     * <p>Strategies apply to this instance only. On the shared instance returned by {@link #get()}, they thus apply
+     * JVM-wide; use a separate instance to scope them.</p>
+     */
+    public void addInstantiationStrategy(final InstantiationStrategy strategy) {
+        this.instantiationStrategies.add(0, strategy);
+        this.instantiators.clear();
+    }
+
+    private Supplier<?> getInstantiator(final Class<?> clazz) {
+        final Supplier<?> cached = this.instantiators.get(clazz);
+        if (cached != null) {
+            return cached;
+        }
+
+        Supplier<?> instantiator = this.factories.get(clazz);
+        if (instantiator == null) {
+            for (final InstantiationStrategy strategy : this.instantiationStrategies) {
+                instantiator = strategy.getInstantiator(clazz);
+                if (instantiator != null) {
+                    break;
+                }
+            }
+        }
+        if (instantiator == null) {
+            throw new AvroRuntimeException("Cannot instantiate " + clazz);
+        }
+        final Supplier<?> previous = this.instantiators.putIfAbsent(clazz, instantiator);
+        return previous == null ? instantiator : previous;
+    }
+
+    /**
+     * Creates a reflective datum writer that also writes {@link LazyRecord lazy views}, whose fields are only
+     * populated through their getters. Unmodified views are written as their encoded bytes.
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public DatumWriter createDatumWriter(final Schema schema) {
+        return new LazyRecordAwareDatumWriter<>(schema, this);
+    }
+
+    /**
+     * Creates a datum writer that is generated for the record class of the schema. It reads fields with direct method
+     * handle calls and writes primitive and string fields without any per-field dispatch. Writers are cached per
+     * schema, and thus per record class.
+     *
+     * <p>Falls back to the reflective writer of {@link #createDatumWriter(Schema)} if the schema is not a record or
+     * the writer cannot be generated, e.g., if the runtime does not ship a Java compiler.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DatumWriter<T> createGeneratedDatumWriter(final Schema schema) {
+        final DatumWriter<?> cached = this.generatedWriters.get(schema);
+        if (cached != null) {
+            return (DatumWriter<T>) cached;
+        }
+
+        DatumWriter<?> writer = null;
+        if (schema.getType() == Schema.Type.RECORD) {
+            try {
+                writer = this.writerGenerator.generate(schema);
+            } catch (final Exception | LinkageError e) {
+                log.warn("Cannot generate datum writer for {}; using reflection instead", schema.getFullName(), e);
+            }
+        }
+        if (writer == null) {
+            writer = this.createDatumWriter(schema);
+        }
+        final DatumWriter<?> previous = this.generatedWriters.putIfAbsent(schema, writer);
+        return (DatumWriter<T>) (previous == null ? writer : previous);
+    }
+
+    /**
+     * Creates a datum reader that is generated for the record class of the schema.
+     *
+     * @see #createGeneratedDatumReader(Schema, Schema)
+     */
+    public <T> DatumReader<T> createGeneratedDatumReader(final Schema schema) {
+        return this.createGeneratedDatumReader(schema, schema);
+    }
+
+    /**
+     * Creates a datum reader that is generated for the record class of the reader schema. It decodes primitive and
+     * string fields without any per-field dispatch and creates records in one step through their all-args
+     * constructor, their Lombok builder, or direct field stores. Readers are cached per schema.
+     *
+     * <p>Falls back to the reflective reader of {@link #createDatumReader(Schema, Schema)} if the writer schema
+     * differs from the reader schema, the schema is not a record, or the reader cannot be generated.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> DatumReader<T> createGeneratedDatumReader(final Schema writer, final Schema reader) {
+        if (!writer.equals(reader)) {
+            // Schema resolution is left to the resolving decoder of the reflective reader
+            return (DatumReader<T>) this.createDatumReader(writer, reader);
+        }
+        final DatumReader<?> cached = this.generatedReaders.get(reader);
+        if (cached != null) {
+            return (DatumReader<T>) cached;
+        }
+
+        DatumReader<?> datumReader = null;
+        if (reader.getType() == Schema.Type.RECORD) {
+            try {
+                datumReader = this.readerGenerator.generate(reader);
+            } catch (final Exception | LinkageError e) {
+                log.warn("Cannot generate datum reader for {}; using reflection instead", reader.getFullName(), e);
+            }
+        }
+        if (datumReader == null) {
+            datumReader = this.createDatumReader(reader);
+        }
+        final DatumReader<?> previous = this.generatedReaders.putIfAbsent(reader, datumReader);
+        return (DatumReader<T>) (previous == null ? datumReader : previous);
+    }
+
+    /**
+     * Creates a factory of lazy views of the record class of the reader schema. A view is a generated subclass that
+     * retains the encoded bytes and decodes each field on the first call of its getter, so that records that are only
+     * partially inspected skip most of the decoding. Factories are cached per schema.
+     *
+     * <p>Falls back to eagerly decoding records with the reflective reader of {@link #createDatumReader(Schema,
+     * Schema)} if the writer schema differs from the reader schema, the schema is not a record, or the view cannot be
+     * generated, e.g., because the class is final or lacks getters.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> LazyViewFactory<T> createLazyViewFactory(final Schema writer, final Schema reader) {
+        if (!writer.equals(reader)) {
+            return createEagerFactory((DatumReader<T>) this.createDatumReader(writer, reader));
+        }
+        final LazyViewFactory<?> cached = this.lazyViewFactories.get(reader);
+        if (cached != null) {
+            return (LazyViewFactory<T>) cached;
+        }
+
+        LazyViewFactory<?> factory = null;
+        if (reader.getType() == Schema.Type.RECORD) {
+            try {
+                factory = this.lazyViewGenerator.generate(reader);
+            } catch (final Exception | LinkageError e) {
+                log.warn("Cannot generate lazy view of {}; decoding eagerly instead", reader.getFullName(), e);
+            }
+        }
+        if (factory == null) {
+            factory = createEagerFactory((DatumReader<T>) this.createDatumReader(reader));
+        }
+        final LazyViewFactory<?> previous = this.lazyViewFactories.putIfAbsent(reader, factory);
+        return (LazyViewFactory<T>) (previous == null ? factory : previous);
+    }
+
+    private static <T> LazyViewFactory<T> createEagerFactory(final DatumReader<T> reader) {
+        return encoded -> reader.read(null, new ByteBufferDecoder().configure(encoded));
     }
 
     private Type[] getBoundParameters(final Object instance, final Class<?> clazz) {
-        final List<TypeVariable<? extends Class<?>>> parameters = Arrays.asList(clazz.getTypeParameters());
-        this.typeParameters = new HashSet<>(parameters);
-        final List<Function<Object, Type>> functions = this.evidenceFunctions
-                .computeIfAbsent(clazz, c -> parameters.stream()
-                        .map(tp -> this.getEvidenceFunction(tp, instance, c))
-                        .collect(Collectors.toList()));
-        return functions.stream().map(f -> f.apply(instance)).toArray(Type[]::new);
+        final EvidencePath[] paths = this.getEvidencePaths(instance, clazz);
+        final Type[] boundParameters = new Type[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            boundParameters[i] = this.resolveType(paths[i], i, instance, clazz);
+        }
+        return boundParameters;
     }
 
-    public Schema getSchema(final Object instance) {
-        if (instance instanceof GenericRecord) {
-            return super.getSchema(instance.getClass());
+    private EvidencePath[] getEvidencePaths(final Object instance, final Class<?> clazz) {
+        final EvidencePath[] cached = this.evidencePaths.get(clazz);
+        if (cached != null) {
+            return cached;
         }
 
-        final Class<?> clazz = instance.getClass();
-        final Type[] boundParameters = this.getBoundParameters(instance, clazz);
-        if (boundParameters.length > 0) {
-            return super.getSchema(new ParameterizedTypeImpl(clazz, boundParameters));
+        final EvidencePath[] paths = new EvidencePath[clazz.getTypeParameters().length];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = this.createEvidencePath(instance, clazz, i);
         }
-        return super.getSchema(clazz);
+        // Concurrent inferences of the same class yield equivalent paths, so the first one wins
+        final EvidencePath[] previous = this.evidencePaths.putIfAbsent(clazz, paths);
+        return previous == null ? paths : previous;
     }
 
-    private Function<Object, Type> getEvidenceFunction(final TypeVariable<? extends Class<?>> tp, final Object instance,
-            final Class<?> clazz) {
-        final List<TypedValueAccessor> accessors = this.getEvidencePath(tp, instance, clazz);
-        if (accessors.isEmpty()) {
-            log.warn("Dangling type variable {} in class {}", tp.getName(), clazz);
-            return (Object o) -> Object.class;
+    /**
+     * Returns the schema of the given type, which is cached by type equality. Thus, structurally equal types, such as
+     * the bound types inferred from two instances of the same shape, share the same schema instance.
+     */
+    @Override
+    public Schema getSchema(final Type type) {
+        final Schema cached = this.schemaCache.getIfPresent(type);
+        if (cached != null) {
+            return cached;
         }
 
-        // Lower bound of the field
-        return (final Object o) -> this.resolveType(accessors, o);
+        final Schema schema = super.getSchema(type);
+        final Schema previous = this.schemaCache.asMap().putIfAbsent(type, schema);
+        return previous == null ? schema : previous;
     }
 
-    private Type resolveType(final List<TypedValueAccessor> accessors, final Object obj) {
-        final Type defaultType = accessors.get(accessors.size() - 1).getDefaultType();
-        Object intermediateObject = obj;
-        for (final TypedValueAccessor accessor : accessors) {
-            intermediateObject = accessor.getTypedValue(intermediateObject);
-            if (intermediateObject == null) {
-                return defaultType;
+    /**
+     * Infers the schema of the instance from the classes of its values. Generic and specific records, as well as all
+     * other {@link GenericContainer}s, already carry their schema, which is returned without any reflection.
+     */
+    public Schema getSchema(final Object instance) {
+        if (instance instanceof GenericContainer) {
+            return ((GenericContainer) instance).getSchema();
+        }
+
+        final Class<?> clazz;
+        if (instance instanceof LazyRecord) {
+            final Schema unmodifiedSchema = ((LazyRecord) instance).getUnmodifiedSchema();
+            if (unmodifiedSchema != null) {
+                return unmodifiedSchema;
             }
+            // Values are inferred from all fields, which the view thus has to decode
+            ((LazyRecord) instance).decodeAll();
+            clazz = instance.getClass().getSuperclass();
+        } else {
+            clazz = instance.getClass();
+        }
+        final ShapeCache.Shape shape = this.shape.get();
+        shape.clear();
+        shape.add(clazz);
+        if (!this.addShape(instance, clazz, shape)) {
+            return this.inferSchema(instance, clazz);
         }
-        if (obj.getClass().getTypeParameters().length > 0) {
-            // Found type T that has more types itself (e.g. T = ArrayList<E>)
-            final Class<?> intermediateClass = intermediateObject.getClass();
-            return new ParameterizedTypeImpl(intermediateClass,
-                    this.getBoundParameters(intermediateObject, intermediateClass));
+
+        final Schema cached = this.shapeCache.get(shape);
+        if (cached != null) {
+            return cached;
         }
-        return intermediateObject.getClass();
+        final Schema schema = this.inferSchema(instance, clazz);
+        // Inference does not use the shape of this thread, so it still describes the instance
+        this.shapeCache.put(shape, schema);
+        return schema;
     }
 
+    private Schema inferSchema(final Object instance, final Class<?> clazz) {
+        final Type[] boundParameters = this.getBoundParameters(instance, clazz);
+        if (boundParameters.length > 0) {
+            return this.getSchema(new ParameterizedTypeImpl(clazz, boundParameters));
+        }
+        return this.getSchema(clazz);
+    }
 
-    private List<TypedValueAccessor> getEvidencePath(final TypeVariable<? extends Class<?>> tp, final Object instance,
-            final Type type) {
-        final TypeToken<?> tt = TypeToken.of(type);
-        if (tt.getRawType().getTypeParameters().length == 0) {
-            return List.of();
+    /**
+     * Adds the classes of all values that bind type variables of the instance in the same order as {@link
+     * #getBoundParameters(Object, Class)} resolves them. Thus, instances with the same shape have the same bound type.
+     *
+     * @return false if the shape cannot be determined along the cached evidence paths
+     */
+    private boolean addShape(final Object instance, final Class<?> clazz, final ShapeCache.Shape shape) {
+        final EvidencePath[] paths = this.getEvidencePaths(instance, clazz);
+        for (int i = 0; i < paths.length; i++) {
+            Object value = paths[i].getValue(instance);
+            if (value == EvidencePath.SHAPE_MISMATCH) {
+                value = this.getAlternativeEvidencePath(instance, clazz, i).getValue(instance);
+                if (value == EvidencePath.SHAPE_MISMATCH) {
+                    return false;
+                }
+            }
+            if (value == null) {
+                shape.add(null);
+            } else {
+                final Class<?> valueClass = value.getClass();
+                shape.add(valueClass);
+                if (!this.addShape(value, valueClass, shape)) {
+                    return false;
+                }
+            }
         }
+        return true;
+    }
 
-        if (instance instanceof List) {
-            final TypedValueAccessor typedValueAccessor = new TypedValueAccessor((Object inst) -> {
-                final List<?> genericListInstance = (List<?>) inst;
-                return genericListInstance.isEmpty() ? null : genericListInstance.get(0);
-            });
+    private EvidencePath createEvidencePath(final Object instance, final Class<?> clazz, final int index) {
+        final TypeVariable<? extends Class<?>>[] parameters = clazz.getTypeParameters();
+        final TypeVariable<? extends Class<?>> tp = parameters[index];
+        final List<TypedValueAccessor> accessors =
+                this.getEvidencePath(tp, Set.<TypeVariable<?>>of(parameters), instance, clazz);
+        if (accessors == null) {
+            return EvidencePath.incomplete();
+        }
+        if (accessors.isEmpty()) {
+            if (this.danglingTypeVariables.add(tp)) {
+                log.warn("Dangling type variable {} in class {}", tp.getName(), clazz);
+            } else {
+                log.debug("Dangling type variable {} in class {}", tp.getName(), clazz);
+            }
+            return EvidencePath.unresolved();
+        }
+
+        // Lower bound of the field
+        return EvidencePath.compile(accessors);
+    }
 
-            return List.of(typedValueAccessor);
+    /**
+     * Returns a path of the type variable for an instance that holds values of other classes than the instance the
+     * cached path was built from, e.g., another Map implementation. Such paths are cached as alternatives of the
+     * cached path, each of which applies to the classes along its own path.
+     */
+    private EvidencePath getAlternativeEvidencePath(final Object instance, final Class<?> clazz, final int index) {
+        final List<EvidencePath> alternatives = this.alternativeEvidencePaths
+                .computeIfAbsent(new EvidencePathKey(clazz, index), key -> new CopyOnWriteArrayList<>());
+        for (final EvidencePath alternative : alternatives) {
+            if (alternative.getValue(instance) != EvidencePath.SHAPE_MISMATCH) {
+                return alternative;
+            }
         }
 
-        return Arrays.stream(tt.getRawType().getDeclaredFields())
-                .flatMap(field -> Stream.of(this.buildEvidencePath(field, tp, instance, tt)))
-                .filter(list -> !list.isEmpty())  // If there is no path, we can discard it
-                .min(Comparator.comparing(List::size))
-                .orElse(List.of());
+        final EvidencePath path = this.createEvidencePath(instance, clazz, index);
+        // Unresolved paths apply to all instances and would thus shadow paths built from later instances
+        if (path != EvidencePath.unresolved() && path != EvidencePath.incomplete()
+                && alternatives.size() < MAX_ALTERNATIVE_EVIDENCE_PATHS) {
+            alternatives.add(path);
+        }
+        return path;
     }
 
-    @SneakyThrows
-    private List<TypedValueAccessor> buildEvidencePath(final Field field, final TypeVariable<? extends Class<?>> tp,
-            final Object instance, final TypeToken<?> tt) {
-        // Field is static OR T is not present in field because generic type does not contain T. Can be ignored.
-        if ((field.getModifiers() & Modifier.STATIC) != 0 || field.getType().equals(field.getGenericType())) {
-            return List.of();
+    private Type resolveType(final EvidencePath cachedPath, final int index, final Object instance,
+            final Class<?> clazz) {
+        EvidencePath path = cachedPath;
+        Object value = path.getValue(instance);
+        if (value == EvidencePath.SHAPE_MISMATCH) {
+            path = this.getAlternativeEvidencePath(instance, clazz, index);
+            value = path.getValue(instance);
         }
+        if (value == null || value == EvidencePath.SHAPE_MISMATCH) {
+            return path.getDefaultType();
+        }
+        // Found type T that may have more types itself (e.g. T = ArrayList<E>)
+        final Class<?> valueClass = value.getClass();
+        return new ParameterizedTypeImpl(valueClass, this.getBoundParameters(value, valueClass));
+    }
 
-        final FieldAccessor accessor = ReflectionUtil.getFieldAccess().getAccessor(field);
-        final TypeToken<?> fieldToken = tt.resolveType(field.getGenericType());
-        final TypedValueAccessor typedValueAccessor = new TypedValueAccessor(accessor);
+    /**
+     * Searches breadth-first for the shortest path from the instance to a value of the type variable. Of several
+     * shortest paths, the one along the first declared fields is chosen.
+     *
+     * @return an empty list if the class cannot bind the type variable, or null if no path has been found because
+     * values along the way are absent in this instance
+     */
+    private List<TypedValueAccessor> getEvidencePath(final TypeVariable<? extends Class<?>> tp,
+            final Set<TypeVariable<?>> typeParameters, final Object instance, final Class<?> clazz) {
+        final Queue<SearchNode> queue = new ArrayDeque<>();
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        queue.add(new SearchNode(null, null, instance, TypeToken.of(clazz)));
+        visited.add(instance);
+        boolean complete = true;
+        while (!queue.isEmpty()) {
+            final SearchNode node = queue.remove();
+            if (node.getValue() instanceof List) {
+                final TypeToken<?> elementToken = node.getType().resolveType(LIST_ELEMENT);
+                final TypedValueAccessor accessor = TypedValueAccessor.firstListElement();
+                if (elementToken.getType().equals(tp)) {
+                    return node.pathTo(accessor);
+                }
+                complete &= this.enqueue(queue, visited, node, accessor, elementToken, tp, typeParameters);
+                continue;
+            }
 
-        // Field is the desired type variable
-        if (fieldToken.getType().equals(tp)) {
-            return List.of(typedValueAccessor);
+            for (final GenericField field : this.getGenericFields(node.getType().getRawType())) {
+                final TypeToken<?> fieldToken = node.getType().resolveType(field.getType());
+                // Field is the desired type variable
+                if (fieldToken.getType().equals(tp)) {
+                    return node.pathTo(field.getAccessor());
+                }
+                complete &= this.enqueue(queue, visited, node, field.getAccessor(), fieldToken, tp, typeParameters);
+            }
         }
+        return complete ? List.of() : null;
+    }
 
+    /**
+     * @return false if the value is absent although its type refers to the type variable, so that other instances may
+     * bind the type variable through it
+     */
+    private boolean enqueue(final Queue<SearchNode> queue, final Set<Object> visited, final SearchNode parent,
+            final TypedValueAccessor accessor, final TypeToken<?> token, final TypeVariable<? extends Class<?>> tp,
+            final Set<TypeVariable<?>> typeParameters) {
         // Skip parameterized fields which are not equal to the current parameterized type since they are handled later
-        if (this.typeParameters.contains(fieldToken.getType())) {
-            return List.of();
+        if (typeParameters.contains(token.getType())) {
+            return true;
         }
 
         // Skip parameterized fields not containing the current parameterized type
-        if (containsParameterizedTypes(fieldToken)) {
-            final Type[] parameterizedTypes = ((ParameterizedType) fieldToken.getType()).getActualTypeArguments();
+        if (token.getType() instanceof ParameterizedType) {
+            final Type[] parameterizedTypes = ((ParameterizedType) token.getType()).getActualTypeArguments();
             final boolean notResolvable = Arrays.stream(parameterizedTypes)
-                    .allMatch(type -> this.typeParameters.contains(type) && !type.equals(tp));
-
+                    .allMatch(type -> typeParameters.contains(type) && !type.equals(tp));
             if (notResolvable) {
-                return List.of();
+                return true;
             }
         }
 
-        final Object fieldValue = accessor.get(instance);
-        if (fieldValue == null) {
-            log.warn("fieldValue is null/not set. Cannot infer type.");
-            return List.of();
+        final Object value = accessor.getTypedValue(parent.getValue());
+        if (value == null) {
+            log.debug("Value of {} is not set. Cannot infer type.", token);
+            return !refersTo(token.getType(), tp);
+        }
+        if (!visited.add(value)) {
+            return true;
         }
 
         // Evaluate subtypes for type variable
-        final TypeToken<?> subtype = fieldToken.isArray() ? fieldToken : fieldToken.getSubtype(fieldValue.getClass());
-        final List<TypedValueAccessor> evidencePath = this.getEvidencePath(tp, fieldValue, subtype.getType());
-        if (!evidencePath.isEmpty()) {
-            final List<TypedValueAccessor> completePath = new ArrayList<>();
-            completePath.add(new TypedValueAccessor(accessor));
-            completePath.addAll(evidencePath);
-            return completePath;
+        final TypeToken<?> subtype;
+        try {
+            subtype = token.isArray() ? token : token.getSubtype(value.getClass());
+        } catch (final IllegalArgumentException e) {
+            log.debug("Cannot resolve {} as {}", value.getClass(), token, e);
+            return true;
         }
-
-        return List.of();
+        // Values of non-generic classes cannot contain the type variable
+        if (subtype.getRawType().getTypeParameters().length > 0) {
+            queue.add(new SearchNode(parent, accessor, value, subtype));
+        }
+        return true;
     }
 
-    private static boolean containsParameterizedTypes(final TypeToken<?> fieldToken) {
-        try {
-            ((ParameterizedType) fieldToken.getType()).getActualTypeArguments();
+    private static boolean refersTo(final Type type, final TypeVariable<?> tp) {
+        if (type.equals(tp)) {
             return true;
-        } catch (final ClassCastException e) {
-            return false;
+        }
+        if (type instanceof ParameterizedType) {
+            return Arrays.stream(((ParameterizedType) type).getActualTypeArguments())
+                    .anyMatch(argument -> refersTo(argument, tp));
+        }
+        if (type instanceof GenericArrayType) {
+            return refersTo(((GenericArrayType) type).getGenericComponentType(), tp);
+        }
+        if (type instanceof WildcardType) {
+            final WildcardType wildcard = (WildcardType) type;
+            return Stream.concat(Arrays.stream(wildcard.getUpperBounds()), Arrays.stream(wildcard.getLowerBounds()))
+                    .anyMatch(bound -> refersTo(bound, tp));
+        }
+        return false;
+    }
+
+    /**
+     * Returns all non-static fields of the class and its superclasses that have a generic type. Their types are
+     * resolved against the class, such that inherited fields refer to the type variables of the class itself.
+     */
+    private GenericField[] getGenericFields(final Class<?> clazz) {
+        final GenericField[] cached = this.genericFields.get(clazz);
+        if (cached != null) {
+            return cached;
         }
 
+        final TypeToken<?> token = TypeToken.of(clazz);
+        final List<GenericField> fields = new ArrayList<>();
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+                // Field is static OR T is not present in field because generic type does not contain T. Can be ignored.
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().equals(field.getGenericType())) {
+                    continue;
+                }
+                final FieldAccessor accessor = ReflectionUtil.getFieldAccess().getAccessor(field);
+                fields.add(new GenericField(new TypedValueAccessor(accessor),
+                        token.resolveType(field.getGenericType()).getType()));
+            }
+        }
+        final GenericField[] genericFieldArray = fields.toArray(GenericField[]::new);
+        final GenericField[] previous = this.genericFields.putIfAbsent(clazz, genericFieldArray);
+        return previous == null ? genericFieldArray : previous;
     }
 
     @Override
@@ -229,7 +595,7 @@ public class Reflect2Data extends ReflectData {
 
         // Check the containing classes for type information of `type` T
         if (typeToResolve instanceof TypeVariable) {
-            for (final TypeToken<?> parentType : this.parameterizedTypeStack) {
+            for (final TypeToken<?> parentType : this.parameterizedTypeStack.get()) {
                 typeToResolve = parentType.resolveType(typeToResolve).getType();
                 if (!(typeToResolve instanceof TypeVariable)) {
                     break;
@@ -244,14 +610,65 @@ public class Reflect2Data extends ReflectData {
         // It is possible for this and the above to be true in the case when `type` is resolved to a ParameterizedType
         // in the loop above.
         if (typeToResolve instanceof ParameterizedType) {
-            this.parameterizedTypeStack.push(TypeToken.of(typeToResolve));
-            final Schema schema = super.createSchema(typeToResolve, names);
-            this.parameterizedTypeStack.pop();
-            return schema;
+            final Deque<TypeToken<?>> stack = this.parameterizedTypeStack.get();
+            stack.push(TypeToken.of(typeToResolve));
+            try {
+                return super.createSchema(typeToResolve, names);
+            } finally {
+                stack.pop();
+            }
         }
         return super.createSchema(typeToResolve, names);
     }
 
+    @Value
+    private static class GenericField {
+        private final TypedValueAccessor accessor;
+        private final Type type;
+    }
+
+    private static final class LazyRecordAwareDatumWriter<T> extends ReflectDatumWriter<T> {
+        private LazyRecordAwareDatumWriter(final Schema schema, final ReflectData data) {
+            super(schema, data);
+        }
+
+        @Override
+        protected void writeRecord(final Schema schema, final Object datum, final Encoder out) throws IOException {
+            if (datum instanceof LazyRecord) {
+                final LazyRecord view = (LazyRecord) datum;
+                if (view.writeEncoded(schema, out)) {
+                    return;
+                }
+                // Fields are read directly, which views only populate through their getters
+                view.decodeAll();
+            }
+            super.writeRecord(schema, datum, out);
+        }
+    }
+
+    @Value
+    private static class EvidencePathKey {
+        Class<?> clazz;
+        int index;
+    }
+
+    @Value
+    private static class SearchNode {
+        private final SearchNode parent;
+        private final TypedValueAccessor accessor;
+        private final Object value;
+        private final TypeToken<?> type;
+
+        private List<TypedValueAccessor> pathTo(final TypedValueAccessor last) {
+            final LinkedList<TypedValueAccessor> path = new LinkedList<>();
+            path.addFirst(last);
+            for (SearchNode node = this; node.getParent() != null; node = node.getParent()) {
+                path.addFirst(node.getAccessor());
+            }
+            return path;
+        }
+    }
+
     @Value
     private static class ParameterizedTypeImpl implements ParameterizedType {
         private final Class<?> clazz;
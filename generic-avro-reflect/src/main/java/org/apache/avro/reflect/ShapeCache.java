@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Schema;
+
+/**
+ * Cache of schemas keyed by the shape of instances, i.e., the sequence of classes of the values that bind the type
+ * variables of their classes. Shapes are identified by a 64-bit fingerprint and compared by identity of their
+ * classes on a hit, so that lookups neither lock nor allocate.
+ *
+ * <p>The table is copied on insertion, which happens once per shape, and cleared when it holds the maximum number of
+ * shapes. Entries refer to their classes weakly, so that the cache does not retain the class loaders of unloaded
+ * applications.</p>
+ */
+final class ShapeCache {
+    private static final int INITIAL_CAPACITY = 16;
+    private final int maximumSize;
+    private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+    private int size = 0;
+
+    ShapeCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    Schema get(final Shape shape) {
+        final Entry[] entries = this.table;
+        final int mask = entries.length - 1;
+        for (int index = shape.index(mask); ; index = (index + 1) & mask) {
+            final Entry entry = entries[index];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.matches(shape)) {
+                return entry.schema;
+            }
+        }
+    }
+
+    synchronized void put(final Shape shape, final Schema schema) {
+        if (this.get(shape) != null) {
+            return;
+        }
+        final Entry[] entries;
+        if (this.size >= this.maximumSize) {
+            entries = new Entry[INITIAL_CAPACITY];
+            this.size = 0;
+        } else if ((this.size + 1) * 2 > this.table.length) {
+            entries = this.rehash(this.table.length * 2);
+        } else {
+            entries = this.table.clone();
+        }
+        final WeakReference<?>[] classes = new WeakReference<?>[shape.length];
+        for (int i = 0; i < shape.length; i++) {
+            // Absent values are kept as null, which cannot be confused with a collected class
+            classes[i] = shape.classes[i] == null ? null : new WeakReference<>(shape.classes[i]);
+        }
+        insert(entries, new Entry(shape.fingerprint, classes, schema));
+        this.size++;
+        this.table = entries;
+    }
+
+    private Entry[] rehash(final int capacity) {
+        final Entry[] entries = new Entry[capacity];
+        for (final Entry entry : this.table) {
+            if (entry != null) {
+                insert(entries, entry);
+            }
+        }
+        return entries;
+    }
+
+    private static void insert(final Entry[] entries, final Entry entry) {
+        final int mask = entries.length - 1;
+        int index = index(entry.fingerprint, mask);
+        while (entries[index] != null) {
+            index = (index + 1) & mask;
+        }
+        entries[index] = entry;
+    }
+
+    private static int index(final long fingerprint, final int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * Mutable shape of an instance, which is meant to be reused for subsequent lookups by the same thread.
+     */
+    static final class Shape {
+        private Class<?>[] classes = new Class<?>[8];
+        private int length = 0;
+        private long fingerprint = 0;
+
+        void clear() {
+            this.length = 0;
+            this.fingerprint = 0;
+        }
+
+        /**
+         * Appends the class of the next value, or {@code null} if the value is absent.
+         */
+        void add(final Class<?> clazz) {
+            if (this.length == this.classes.length) {
+                this.classes = Arrays.copyOf(this.classes, this.length * 2);
+            }
+            this.classes[this.length++] = clazz;
+            this.fingerprint = (this.fingerprint + System.identityHashCode(clazz)) * 0x9E3779B97F4A7C15L;
+        }
+
+        private int index(final int mask) {
+            return ShapeCache.index(this.fingerprint, mask);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final long fingerprint;
+        private final WeakReference<?>[] classes;
+        private final Schema schema;
+
+        private boolean matches(final Shape shape) {
+            if (this.fingerprint != shape.fingerprint || this.classes.length != shape.length) {
+                return false;
+            }
+            for (int i = 0; i < shape.length; i++) {
+                final Class<?> clazz = shape.classes[i];
+                if (this.classes[i] == null ? clazz != null : clazz == null || this.classes[i].get() != clazz) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
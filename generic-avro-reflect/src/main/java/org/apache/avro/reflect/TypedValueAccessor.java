@@ -24,36 +24,84 @@
 
 package org.apache.avro.reflect;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.util.function.Supplier;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
-@FunctionalInterface
-interface CheckedFunction<T, R> {
-    R apply(T t) throws Exception;
-}
-
+/**
+ * Accesses one step of an evidence path through a {@link MethodHandle} of type {@code (Object)Object}, such that
+ * several steps can be composed into a single handle by {@link EvidencePath}.
+ *
+ * <p>Values that are not of the class the step was built for yield {@link #SHAPE_MISMATCH}, which is passed on by
+ * all following steps.</p>
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 class TypedValueAccessor {
-    private final CheckedFunction<Object, Object> getTypedValueFn;
-    private final Supplier<Type> getDefaultTypeFn;
+    static final Object SHAPE_MISMATCH = new Object();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle FIELD_ACCESSOR_GET;
+    private static final MethodHandle FIRST_ELEMENT;
+    private static final MethodHandle IS_INSTANCE;
+    private static final MethodHandle MISMATCH = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, SHAPE_MISMATCH), 0, Object.class);
 
-    TypedValueAccessor(final FieldAccessor fieldAccessor) {
-        this.getTypedValueFn = fieldAccessor::get;
-        this.getDefaultTypeFn = () -> fieldAccessor.getField().getType();
+    static {
+        try {
+            FIELD_ACCESSOR_GET = LOOKUP.findVirtual(FieldAccessor.class, "get", GETTER_TYPE);
+            FIRST_ELEMENT = LOOKUP.findStatic(TypedValueAccessor.class, "firstElement", GETTER_TYPE);
+            IS_INSTANCE = LOOKUP.findVirtual(Class.class, "isInstance",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
     }
 
-    TypedValueAccessor(final CheckedFunction<Object, Object> nonFieldAccessor) {
-        this.getTypedValueFn = nonFieldAccessor;
-        this.getDefaultTypeFn = () -> Object.class;
+    @Getter(AccessLevel.PACKAGE)
+    private final MethodHandle getter;
+    @Getter(AccessLevel.PACKAGE)
+    private final Type defaultType;
+
+    TypedValueAccessor(final FieldAccessor fieldAccessor) {
+        this(guard(fieldAccessor.getField().getDeclaringClass(), createGetter(fieldAccessor)),
+                fieldAccessor.getField().getType());
     }
 
-    Type getDefaultType() {
-        return this.getDefaultTypeFn.get();
+    static TypedValueAccessor firstListElement() {
+        return new TypedValueAccessor(guard(List.class, FIRST_ELEMENT), Object.class);
     }
 
     @SneakyThrows
     Object getTypedValue(final Object instance) {
-        return this.getTypedValueFn.apply(instance);
+        return (Object) this.getter.invokeExact(instance);
+    }
+
+    private static MethodHandle createGetter(final FieldAccessor fieldAccessor) {
+        final Field field = fieldAccessor.getField();
+        // Fields of named modules, such as the JDK's, may not be opened to us, but FieldAccessor can still read them
+        if (!field.getDeclaringClass().getModule().isNamed() && field.trySetAccessible()) {
+            try {
+                return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (final IllegalAccessException e) {
+                // fall back to the field accessor
+            }
+        }
+        return FIELD_ACCESSOR_GET.bindTo(fieldAccessor);
     }
-}
 
+    private static MethodHandle guard(final Class<?> expectedClass, final MethodHandle getter) {
+        return MethodHandles.guardWithTest(IS_INSTANCE.bindTo(expectedClass), getter, MISMATCH);
+    }
+
+    private static Object firstElement(final Object instance) {
+        final List<?> genericListInstance = (List<?>) instance;
+        return genericListInstance.isEmpty() ? null : genericListInstance.get(0);
+    }
+}
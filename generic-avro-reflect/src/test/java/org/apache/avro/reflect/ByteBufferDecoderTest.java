@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.apache.avro.reflect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import org.junit.jupiter.api.Test;
+
+class ByteBufferDecoderTest {
+    private static final Schema SCHEMA = SchemaBuilder.record("Record").fields()
+            .requiredInt("int")
+            .requiredLong("long")
+            .requiredFloat("float")
+            .requiredDouble("double")
+            .requiredBoolean("boolean")
+            .requiredString("string")
+            .requiredBytes("bytes")
+            .name("fixed").type().fixed("Fixed").size(2).noDefault()
+            .name("enum").type().enumeration("Enum").symbols("A", "B").noDefault()
+            .name("array").type().array().items().longType().noDefault()
+            .name("map").type().map().values().stringType().noDefault()
+            .optionalString("optional")
+            .endRecord();
+    private static final Schema PROJECTION = SchemaBuilder.record("Record").fields()
+            .requiredDouble("double")
+            .optionalString("optional")
+            .endRecord();
+
+    private static GenericRecord createRecord() {
+        final GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put("int", -123_456);
+        record.put("long", Long.MIN_VALUE);
+        record.put("float", 1.5F);
+        record.put("double", -2.25);
+        record.put("boolean", true);
+        record.put("string", new Utf8("test \u2713"));
+        record.put("bytes", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        record.put("fixed", new GenericData.Fixed(SCHEMA.getField("fixed").schema(), new byte[]{4, 5}));
+        record.put("enum", new GenericData.EnumSymbol(SCHEMA.getField("enum").schema(), "B"));
+        record.put("array", List.of(1L, Long.MAX_VALUE));
+        record.put("map", Map.of(new Utf8("key"), new Utf8("value")));
+        record.put("optional", new Utf8("present"));
+        return record;
+    }
+
+    private static ByteBuffer encodeDirect(final GenericRecord record) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(SCHEMA).write(record, encoder);
+        encoder.flush();
+        final byte[] bytes = out.toByteArray();
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    @Test
+    void shouldReadAllTypes() throws IOException {
+        final GenericRecord record = createRecord();
+        final ByteBuffer buffer = encodeDirect(record);
+
+        final GenericRecord read = new GenericDatumReader<GenericRecord>(SCHEMA)
+                .read(null, new ByteBufferDecoder().configure(buffer));
+        assertThat(read).isEqualTo(record);
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    void shouldSkipFields() throws IOException {
+        final GenericRecord record = createRecord();
+
+        final GenericRecord read = new GenericDatumReader<GenericRecord>(SCHEMA, PROJECTION)
+                .read(null, new ByteBufferDecoder().configure(encodeDirect(record)));
+        assertThat(read.get("double")).isEqualTo(-2.25);
+        assertThat(read.get("optional")).isEqualTo(new Utf8("present"));
+    }
+}
@@ -24,23 +24,34 @@
 
 package org.apache.avro.reflect;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.google.common.reflect.TypeToken;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
 import org.apache.avro.reflect.data.MultipleGenericsWithExtendsClass;
 import org.apache.avro.reflect.data.GenericBaseClass;
 import org.apache.avro.reflect.data.GenericClass;
 import org.apache.avro.reflect.data.GenericSubClass;
 import org.apache.avro.reflect.data.GenericUserClass;
 import org.apache.avro.reflect.data.GenericValueMapClass;
+import org.apache.avro.reflect.data.InheritedGenericClass;
 import org.apache.avro.reflect.data.ListClass;
 import org.apache.avro.reflect.data.MapClass;
 import org.apache.avro.reflect.data.NestedGenericMapListValueClass;
@@ -80,6 +91,21 @@ class Reflect2DataTest {
         assertEquals(expected, schema);
     }
 
+    @Test
+    void getEmbeddedSchemaOfGenericRecord() {
+        final Schema schema = SchemaBuilder.record("Record").fields().requiredInt("value").endRecord();
+        final GenericRecord record = new GenericRecordBuilder(schema).set("value", 42).build();
+        assertThat(Reflect2Data.get().getSchema(record)).isSameAs(schema);
+    }
+
+    @Test
+    void getSameSchemaFromInstancesOfSameShape() {
+        final Schema schema = Reflect2Data.get().getSchema(new GenericClass<>("foo"));
+        assertThat(Reflect2Data.get().getSchema(new GenericClass<>("bar"))).isSameAs(schema);
+        assertThat(Reflect2Data.get().getSchema(new GenericClass<>(10L))).isNotEqualTo(schema);
+        assertThat(Reflect2Data.get().getSchema(new GenericClass<>((String) null))).isNotEqualTo(schema);
+    }
+
     @Test
     void getReifiedSchema() {
         final Schema schema = Reflect2Data.get().getSchema(GenericUserClass.class);
@@ -227,6 +253,23 @@ class Reflect2DataTest {
         assertEquals(expected, schema);
     }
 
+    @Test
+    void getGenericValueMapClassSchemaFromInstancesOfDifferentMapClasses() {
+        final Schema expected = SchemaBuilder.builder()
+                .record("GenericValueMapClass").namespace(GenericValueMapClass.class.getPackageName()).fields()
+                .name("genericValuesMap").type().map().values().intType().noDefault()
+                .endRecord();
+        assertEquals(expected, Reflect2Data.get().getSchema(new GenericValueMapClass<>(Map.of("foo", 10))));
+        assertEquals(expected,
+                Reflect2Data.get().getSchema(new GenericValueMapClass<>(Collections.singletonMap("foo", 10))));
+        assertEquals(expected, Reflect2Data.get().getSchema(new GenericValueMapClass<>(Map.of("foo", 10))));
+        assertEquals(expected,
+                Reflect2Data.get().getSchema(new GenericValueMapClass<>(Collections.singletonMap("bar", 20))));
+        final Schema stringMap = Reflect2Data.get()
+                .getSchema(new GenericValueMapClass<>(Collections.singletonMap("foo", "bar")));
+        assertEquals(Schema.Type.STRING, stringMap.getField("genericValuesMap").schema().getValueType().getType());
+    }
+
     @Test
     void getNestedGenericValueMapClassSchemaBoundType() {
         final Schema schema = Reflect2Data.get().getSchema(new TypeToken<NestedGenericValueMapClass<String>>() {
@@ -259,6 +302,17 @@ class Reflect2DataTest {
         assertEquals(expected, schema);
     }
 
+    @Test
+    void getNestedGenericValueMapClassSchemaFromInstanceAfterInstanceWithoutValues() {
+        final Reflect2Data reflectData = new Reflect2Data();
+        reflectData.getSchema(new NestedGenericValueMapClass<Integer>(null));
+        final Schema schema = reflectData
+                .getSchema(new NestedGenericValueMapClass<>(new GenericValueMapClass<>(Map.of("foo", 10))));
+        final Schema valueSchema = schema.getField("nestedGenericMap").schema()
+                .getField("genericValuesMap").schema().getValueType();
+        assertEquals(Schema.Type.INT, valueSchema.getType());
+    }
+
     @Test
     void getNestedGenericValueMapClassSchemaValueClassListTypeFromInstance() {
         final NestedGenericValueMapClass<List<ValueClass>> instance =
@@ -328,6 +382,18 @@ class Reflect2DataTest {
         assertEquals(expected, schema);
     }
 
+    @Test
+    void getInheritedGenericClassSchemaFromInstance() {
+        final Schema schema = Reflect2Data.get().getSchema(new InheritedGenericClass<>("base", 10));
+
+        final Schema expected = SchemaBuilder.builder()
+                .record("InheritedGenericClass").namespace(InheritedGenericClass.class.getPackageName()).fields()
+                .name("id").type().intType().noDefault()
+                .name("baseVariable").type().stringType().noDefault()
+                .endRecord();
+        assertEquals(expected, schema);
+    }
+
     @Test
     void getNestedGenericMapListValueClassSchemaFromInstance() {
         final NestedGenericMapListValueClass<GenericClass<Float>> instance =
@@ -411,4 +477,34 @@ class Reflect2DataTest {
                 .endRecord();
         assertEquals(expected, schema);
     }
+
+    @Test
+    void shareInstance() {
+        assertThat(Reflect2Data.get()).isSameAs(Reflect2Data.get());
+    }
+
+    @Test
+    void getSchemaFromInstanceConcurrently() throws InterruptedException, ExecutionException {
+        final Schema expectedString = SchemaBuilder.builder()
+                .record("GenericClass").namespace(GenericClass.class.getPackageName()).fields()
+                .name("genericField").type().stringType().noDefault()
+                .endRecord();
+        final Schema expectedLong = SchemaBuilder.builder()
+                .record("GenericClass").namespace(GenericClass.class.getPackageName()).fields()
+                .name("genericField").type().longType().noDefault()
+                .endRecord();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Schema>> schemas = IntStream.range(0, 1000)
+                    .mapToObj(i -> executor.submit(() -> Reflect2Data.get()
+                            .getSchema(i % 2 == 0 ? new GenericClass<>("foo") : new GenericClass<>((long) i))))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < schemas.size(); i++) {
+                assertEquals(i % 2 == 0 ? expectedString : expectedLong, schemas.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -25,17 +25,23 @@
 package org.apache.avro.reflect;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.google.common.reflect.TypeToken;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
@@ -53,7 +59,11 @@ import org.apache.avro.reflect.data.MapClass;
 import org.apache.avro.reflect.data.NestedGenericMapListValueClass;
 import org.apache.avro.reflect.data.NestedGenericValueMapClass;
 import org.apache.avro.reflect.data.NestedValueClass;
+import org.apache.avro.reflect.data.PointClass;
+import org.apache.avro.reflect.data.StateClass;
+import org.apache.avro.reflect.data.SwappedConstructorClass;
 import org.apache.avro.reflect.data.ValueClass;
+import org.apache.avro.reflect.data.WideBeanClass;
 import org.junit.jupiter.api.Test;
 
 class Reflect2DatumReaderTest {
@@ -302,4 +312,339 @@ class Reflect2DatumReaderTest {
         verify(genericList, datumWriter, datumReader);
     }
 
+    @Test
+    void testGeneratedWriterForValueClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final ValueClass valueClass = new ValueClass(42, "test");
+        final Schema schema = reflectData.getSchema(valueClass);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        assertThat(datumWriter).isInstanceOf(GeneratedDatumWriter.class)
+            .isSameAs(reflectData.createGeneratedDatumWriter(schema));
+        verify(valueClass, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedWriterForNestedValueClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final NestedValueClass nestedClass = new NestedValueClass(10, new ValueClass(11, "foo"));
+        final Schema schema = reflectData.getSchema(nestedClass);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        assertThat(datumWriter).isInstanceOf(GeneratedDatumWriter.class);
+        verify(nestedClass, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedWriterForGenericClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final NestedGenericValueMapClass<Integer> nestedClass =
+            new NestedGenericValueMapClass<>(new GenericValueMapClass<>(new HashMap<>(Map.of("foo", 1))));
+        final Schema schema = reflectData.getSchema(nestedClass);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        assertThat(datumWriter).isInstanceOf(GeneratedDatumWriter.class);
+        verify(nestedClass, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedWriterFallsBackForNonRecords() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final List<Integer> list = new ArrayList<>(List.of(1, 2));
+        final Schema schema = reflectData.getSchema(list);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        assertThat(datumWriter).isInstanceOf(ReflectDatumWriter.class);
+        verify(list, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedReaderForValueClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final ValueClass valueClass = new ValueClass(42, "test");
+        final Schema schema = reflectData.getSchema(valueClass);
+
+        final DatumWriter datumWriter = reflectData.createDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOf(GeneratedDatumReader.class)
+            .isSameAs(reflectData.createGeneratedDatumReader(schema, schema));
+        verify(valueClass, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedReaderForBeanClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(BeanClass.class);
+
+        final var bean = new BeanClass();
+        bean.setText("test");
+        bean.setX(42);
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOfSatisfying(GeneratedDatumReader.class,
+                reader -> assertThat(reader.isReusingRecords()).isTrue());
+        verify(bean, datumWriter, datumReader, true);
+    }
+
+    @Test
+    void testGeneratedReaderForBuilderValueClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(BuilderValueClass.class);
+
+        final var builderValueClass = BuilderValueClass.builder().x(42).text("test").build();
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOfSatisfying(GeneratedDatumReader.class,
+                reader -> assertThat(reader.isReusingRecords()).isFalse());
+        verify(builderValueClass, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedReaderForGenericClass() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final NestedGenericValueMapClass<List<ValueClass>> instance =
+            new NestedGenericValueMapClass<>(new GenericValueMapClass<>(Map.of("foo",
+                new ArrayList<>(List.of(new ValueClass(100, "nested"))))));
+        final Schema schema = reflectData.getSchema(instance);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOf(GeneratedDatumReader.class);
+        verify(instance, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedReaderFallsBackForDifferentSchemas() {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema writer = reflectData.getSchema(new GenericClass<>("foo"));
+        final Schema reader = reflectData.getSchema(new GenericClass<>(1));
+
+        assertThat(reflectData.createGeneratedDatumReader(writer, reader)).isInstanceOf(ReflectDatumReader.class);
+    }
+
+    @Test
+    void testGeneratedReaderDoesNotMatchConstructorsByTypes() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final SwappedConstructorClass instance = new SwappedConstructorClass("second", "first");
+        final Schema schema = reflectData.getSchema(SwappedConstructorClass.class);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOf(GeneratedDatumReader.class);
+        verify(instance, datumWriter, datumReader);
+    }
+
+    @Test
+    void testGeneratedReaderMatchesConstructorsByParameterNames() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final PointClass point = new PointClass(2, 1);
+        final Schema schema = reflectData.getSchema(PointClass.class);
+
+        final DatumWriter datumWriter = reflectData.createGeneratedDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createGeneratedDatumReader(schema);
+
+        assertThat(datumReader).isInstanceOf(GeneratedDatumReader.class);
+        verify(point, datumWriter, datumReader);
+
+        // The constructor validates the fields of every read record
+        final GenericData.Record invalid = new GenericData.Record(schema);
+        invalid.put("x", -1);
+        invalid.put("y", 2);
+        final byte[] encoded;
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+            new GenericDatumWriter<GenericData.Record>(schema).write(invalid, encoder);
+            encoder.flush();
+            encoded = baos.toByteArray();
+        }
+        assertThatThrownBy(() -> datumReader.read(null, DecoderFactory.get().binaryDecoder(encoded, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRegisteredFactory() throws IOException {
+        final Reflect2Data reflectData = new Reflect2Data();
+        final AtomicInteger created = new AtomicInteger();
+        reflectData.registerFactory(BeanClass.class, () -> {
+            created.incrementAndGet();
+            return new BeanClass();
+        });
+        final Schema schema = reflectData.getSchema(BeanClass.class);
+
+        final var bean = new BeanClass();
+        bean.setText("test");
+        bean.setX(42);
+        final DatumWriter datumWriter = reflectData.createDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        verify(bean, datumWriter, datumReader);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    void testInstantiationStrategy() throws IOException {
+        final Reflect2Data reflectData = new Reflect2Data();
+        final AtomicInteger created = new AtomicInteger();
+        reflectData.addInstantiationStrategy(clazz -> clazz == ValueClass.class ? () -> {
+            created.incrementAndGet();
+            return new ValueClass(0, null);
+        } : null);
+        final Schema schema = reflectData.getSchema(NestedValueClass.class);
+
+        final var nestedValueClass = new NestedValueClass(13, new ValueClass(42, "test"));
+        final DatumWriter datumWriter = reflectData.createDatumWriter(schema);
+        final DatumReader datumReader = reflectData.createDatumReader(schema);
+
+        verify(nestedValueClass, datumWriter, datumReader);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    void testPooledReader() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final ListClass listClass = new ListClass(new ArrayList<>(List.of(10)));
+        final Schema schema = reflectData.getSchema(listClass);
+
+        final DatumWriter datumWriter = reflectData.createDatumWriter(schema);
+        final DatumReader datumReader = new PooledDatumReader<>(reflectData.createDatumReader(schema), 2);
+
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+            datumWriter.write(listClass, encoder);
+            datumWriter.write(new ListClass(new ArrayList<>(List.of(11, 12))), encoder);
+            datumWriter.write(new ListClass(new ArrayList<>(List.of(13))), encoder);
+            encoder.flush();
+
+            final BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(baos.toByteArray(), null);
+            final Object o1 = datumReader.read(null, decoder);
+            assertThat(o1).isEqualTo(listClass);
+            final Object o2 = datumReader.read(null, decoder);
+            assertThat(o2).isNotSameAs(o1).isEqualTo(new ListClass(List.of(11, 12)));
+            final Object o3 = datumReader.read(null, decoder);
+            assertThat(o3).isSameAs(o1).isEqualTo(new ListClass(List.of(13)));
+        }
+    }
+
+    @Test
+    void testLazyView() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(WideBeanClass.class);
+        final WideBeanClass bean = createWideBean();
+        final byte[] encoded = encode(bean, reflectData.createDatumWriter(schema));
+
+        final LazyViewFactory<WideBeanClass> factory = reflectData.createLazyViewFactory(schema, schema);
+        assertThat(reflectData.createLazyViewFactory(schema, schema)).isSameAs(factory);
+        final WideBeanClass view = factory.create(ByteBuffer.wrap(encoded));
+        assertThat(view).isInstanceOf(LazyRecord.class);
+        assertThat(view.getName()).isEqualTo("test");
+        assertThat(view.isActive()).isTrue();
+        assertThat(view).isEqualTo(bean);
+
+        view.setName("changed");
+        assertThat(view.getName()).isEqualTo("changed");
+        assertThat(reflectData.getSchema(view)).isEqualTo(schema);
+    }
+
+    @Test
+    void testLazyViewWritesEncodedBytes() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(WideBeanClass.class);
+        final byte[] encoded = encode(createWideBean(), reflectData.createDatumWriter(schema));
+        final byte[] padded = Arrays.copyOf(encoded, encoded.length + 3);
+        final LazyViewFactory<WideBeanClass> factory = reflectData.createLazyViewFactory(schema, schema);
+
+        final WideBeanClass view = factory.create(ByteBuffer.wrap(padded));
+        assertThat(view.getName()).isEqualTo("test");
+        assertThat(((LazyRecord) view).getUnmodifiedSchema()).isSameAs(schema);
+        assertThat(reflectData.getSchema(view)).isSameAs(schema);
+        assertThat(encode(view, reflectData.createDatumWriter(schema))).isEqualTo(encoded);
+        assertThat(encode(view, reflectData.createGeneratedDatumWriter(schema))).isEqualTo(encoded);
+
+        // Mutable values may be modified without the setter
+        view.getTags().add("d");
+        assertThat(((LazyRecord) view).getUnmodifiedSchema()).isNull();
+        final WideBeanClass expected = createWideBean();
+        expected.getTags().add("d");
+        assertThat(encode(view, reflectData.createDatumWriter(schema)))
+            .isEqualTo(encode(expected, reflectData.createDatumWriter(schema)));
+    }
+
+    @Test
+    void testModifiedLazyViewIsWrittenFromItsFields() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(WideBeanClass.class);
+        final WideBeanClass bean = createWideBean();
+        final byte[] encoded = encode(bean, reflectData.createDatumWriter(schema));
+        final LazyViewFactory<WideBeanClass> factory = reflectData.createLazyViewFactory(schema, schema);
+        bean.setName("changed");
+        final byte[] expected = encode(bean, reflectData.createDatumWriter(schema));
+
+        final WideBeanClass view = factory.create(ByteBuffer.wrap(encoded));
+        view.setName("changed");
+        assertThat(encode(view, reflectData.createDatumWriter(schema))).isEqualTo(expected);
+        final WideBeanClass generatedView = factory.create(ByteBuffer.wrap(encoded));
+        generatedView.setName("changed");
+        assertThat(encode(generatedView, reflectData.createGeneratedDatumWriter(schema))).isEqualTo(expected);
+    }
+
+    @Test
+    void testModifiedLazyViewOfClassWithStateField() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(StateClass.class);
+        final StateClass stateClass = new StateClass();
+        stateClass.setState("open");
+        stateClass.setVersion(1);
+        final byte[] encoded = encode(stateClass, reflectData.createDatumWriter(schema));
+
+        final StateClass view = reflectData.<StateClass>createLazyViewFactory(schema, schema)
+                .create(ByteBuffer.wrap(encoded));
+        assertThat(view).isInstanceOf(LazyRecord.class);
+        view.setState("closed");
+        stateClass.setState("closed");
+        assertThat(reflectData.getSchema(view)).isEqualTo(schema);
+        assertThat(encode(view, reflectData.createDatumWriter(schema)))
+                .isEqualTo(encode(stateClass, reflectData.createDatumWriter(schema)));
+    }
+
+    @Test
+    void testLazyViewFallsBackForFinalClasses() throws IOException {
+        final Reflect2Data reflectData = Reflect2Data.get();
+        final Schema schema = reflectData.getSchema(ValueClass.class);
+        final ValueClass valueClass = new ValueClass(42, "test");
+        final byte[] encoded = encode(valueClass, reflectData.createDatumWriter(schema));
+
+        final LazyViewFactory<ValueClass> factory = reflectData.createLazyViewFactory(schema, schema);
+        assertThat(factory.create(ByteBuffer.wrap(encoded))).isNotInstanceOf(LazyRecord.class).isEqualTo(valueClass);
+    }
+
+    private static WideBeanClass createWideBean() {
+        final WideBeanClass bean = new WideBeanClass();
+        bean.setTags(new ArrayList<>(List.of("a", "b")));
+        bean.setCounts(new HashMap<>(Map.of("c", 1)));
+        bean.setActive(true);
+        bean.setName("test");
+        return bean;
+    }
+
+    private static <T> byte[] encode(final T instance, final DatumWriter<T> datumWriter) throws IOException {
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
+            datumWriter.write(instance, encoder);
+            encoder.flush();
+            return baos.toByteArray();
+        }
+    }
 }
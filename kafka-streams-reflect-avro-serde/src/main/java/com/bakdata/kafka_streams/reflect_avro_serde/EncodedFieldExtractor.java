@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
+
+/**
+ * Reads a single field from serialized records without deserializing them. The field is located by a plan that is
+ * compiled once per writer schema id and skips all preceding fields.
+ *
+ * <p>Created by {@link ReflectAvroDeserializer#extractor(String)}. Together with a pass-through value serde, such as
+ * {@code Serdes.ByteArray()}, it selects keys for repartitioning while forwarding the serialized values unchanged:</p>
+ * <pre>{@code
+ * builder.stream(topic, Consumed.with(keySerde, Serdes.ByteArray()))
+ *         .selectKey(deserializer.<String>extractor("customer.id"))
+ *         .groupByKey(Grouped.with(Serdes.String(), Serdes.ByteArray()))
+ * }</pre>
+ *
+ * <p>Primitive values are returned boxed, strings and enum symbols as {@link String}, and all other values as
+ * generic data. A field that is not part of the writer schema, or whose enclosing optional record is not set, is
+ * null.</p>
+ *
+ * @param <K> the type of the field
+ */
+public final class EncodedFieldExtractor<K> implements KeyValueMapper<Object, byte[], K> {
+    private final ReflectAvroDeserializer<?> deserializer;
+    private final String path;
+    private final IntObjectCache<Plan> plans = new IntObjectCache<>(1000);
+    private final ThreadLocal<EncodedRecord> records = ThreadLocal.withInitial(EncodedRecord::new);
+
+    EncodedFieldExtractor(final ReflectAvroDeserializer<?> deserializer, final String path) {
+        this.deserializer = deserializer;
+        this.path = path;
+    }
+
+    @Override
+    public K apply(final Object key, final byte[] value) {
+        return this.extract(value);
+    }
+
+    public K extract(final byte[] data) {
+        return data == null ? null : this.extract(data, 0, data.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public K extract(final byte[] data, final int offset, final int length) {
+        final int id = ReflectAvroDeserializer.getId(data, offset, length);
+        try {
+            final Plan plan = this.plans.get(id,
+                    key -> new Plan(FieldLocator.compile(this.deserializer.getSchema(key), this.path)));
+            if (plan.locator == null) {
+                return null;
+            }
+            final int headerSize = ReflectAvroDeserializer.HEADER_SIZE;
+            final Decoder in = this.records.get().reset(data, offset + headerSize, length - headerSize).rewind();
+            final Schema schema = plan.locator.locate(in);
+            return schema == null ? null : (K) plan.readValue(schema, in);
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error extracting " + this.path + " from Avro message for id " + id, e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+        }
+    }
+
+    private static final class Plan {
+        // Null if the writer schema does not contain the field
+        private final FieldLocator locator;
+        // Readers of complex values per located schema, of which there are several if the path contains unions
+        private final IdentityCache<Schema, DatumReader<Object>> readers = new IdentityCache<>(1000);
+
+        private Plan(final FieldLocator locator) {
+            this.locator = locator;
+        }
+
+        private Object readValue(final Schema schema, final Decoder in) throws IOException {
+            switch (schema.getType()) {
+                case NULL:
+                    in.readNull();
+                    return null;
+                case BOOLEAN:
+                    return in.readBoolean();
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case STRING:
+                    return in.readString();
+                case ENUM:
+                    return schema.getEnumSymbols().get(in.readEnum());
+                default:
+                    return this.readers.get(schema, GenericDatumReader::new).read(null, in);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.io.IOException;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Encoded record body that is scanned for field values without deserializing it. It is meant to be reused per
+ * thread, so that scanning does not allocate decoders or string buffers.
+ */
+final class EncodedRecord {
+    private final DecoderFactory decoderFactory = DecoderFactory.get();
+    private final Utf8 string = new Utf8();
+    private BinaryDecoder decoder = null;
+    private byte[] data = new byte[0];
+    private int offset = 0;
+    private int length = 0;
+
+    EncodedRecord reset(final byte[] data, final int offset, final int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Returns a decoder positioned at the start of the record.
+     */
+    BinaryDecoder rewind() {
+        this.decoder = this.decoderFactory.binaryDecoder(this.data, this.offset, this.length, this.decoder);
+        return this.decoder;
+    }
+
+    /**
+     * Reads a string into a buffer that is overwritten by the next read.
+     */
+    Utf8 readString(final Decoder in) throws IOException {
+        return in.readString(this.string);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.io.IOException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.streams.kstream.Predicate;
+
+/**
+ * Filters serialized records by evaluating a {@link FieldPredicate} on their encoded bytes. The predicate is compiled
+ * once per writer schema into a matcher that skips to the fields and compares their values in place. Null records,
+ * e.g., tombstones, do not pass.
+ *
+ * <p>Created by {@link ReflectAvroDeserializer#filter(FieldPredicate)}, e.g., to filter a stream of byte arrays
+ * before deserializing it:</p>
+ * <pre>{@code
+ * builder.stream(topic, Consumed.with(keySerde, Serdes.ByteArray()))
+ *         .filter(deserializer.filter(FieldPredicate.equalTo("status", "ACTIVE")))
+ *         .mapValues(value -> deserializer.deserialize(topic, value))
+ * }</pre>
+ */
+public final class EncodedRecordFilter implements Predicate<Object, byte[]> {
+    private final ReflectAvroDeserializer<?> deserializer;
+    private final FieldPredicate predicate;
+    private final IntObjectCache<FieldPredicate.Matcher> matchers = new IntObjectCache<>(1000);
+    private final ThreadLocal<EncodedRecord> records = ThreadLocal.withInitial(EncodedRecord::new);
+
+    EncodedRecordFilter(final ReflectAvroDeserializer<?> deserializer, final FieldPredicate predicate) {
+        this.deserializer = deserializer;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean test(final Object key, final byte[] value) {
+        return this.test(value);
+    }
+
+    public boolean test(final byte[] data) {
+        return data != null && this.test(data, 0, data.length);
+    }
+
+    public boolean test(final byte[] data, final int offset, final int length) {
+        final int id = ReflectAvroDeserializer.getId(data, offset, length);
+        try {
+            final FieldPredicate.Matcher matcher =
+                    this.matchers.get(id, key -> this.predicate.compile(this.deserializer.getSchema(key)));
+            final int headerSize = ReflectAvroDeserializer.HEADER_SIZE;
+            return matcher.matches(this.records.get().reset(data, offset + headerSize, length - headerSize));
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error filtering Avro message for id " + id, e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+        }
+    }
+}
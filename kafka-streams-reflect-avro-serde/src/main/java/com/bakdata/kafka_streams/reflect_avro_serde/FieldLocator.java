@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.Decoder;
+
+/**
+ * Positions a decoder at the value of a field in a record encoded with a given writer schema. The field is given by a
+ * dot-separated path, which may descend into nested and optional records. All preceding fields are skipped without
+ * being materialized.
+ */
+final class FieldLocator {
+    private final Step[] steps;
+    private final Schema target;
+
+    private FieldLocator(final Step[] steps, final Schema target) {
+        this.steps = steps;
+        this.target = target;
+    }
+
+    /**
+     * @return the locator of the field, or null if the writer schema does not contain it
+     */
+    static FieldLocator compile(final Schema writer, final String path) {
+        final String[] names = path.split("\\.");
+        final Step[] steps = new Step[names.length];
+        Schema schema = writer;
+        for (int i = 0; i < names.length; i++) {
+            int branch = -1;
+            if (schema.getType() == Schema.Type.UNION) {
+                branch = findRecordBranch(schema.getTypes(), names[i]);
+                if (branch < 0) {
+                    return null;
+                }
+                schema = schema.getTypes().get(branch);
+            }
+            final Field field = schema.getType() == Schema.Type.RECORD ? schema.getField(names[i]) : null;
+            if (field == null) {
+                return null;
+            }
+            final Schema[] skipped = new Schema[field.pos()];
+            for (int j = 0; j < skipped.length; j++) {
+                skipped[j] = schema.getFields().get(j).schema();
+            }
+            steps[i] = new Step(branch, skipped);
+            schema = field.schema();
+        }
+        return new FieldLocator(steps, schema);
+    }
+
+    private static int findRecordBranch(final List<Schema> types, final String name) {
+        for (int i = 0; i < types.size(); i++) {
+            if (types.get(i).getType() == Schema.Type.RECORD && types.get(i).getField(name) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips to the value of the field, whose union branch is already read if the field is a union.
+     *
+     * @return the schema of the value, or null if the field is absent because an enclosing optional record is not set
+     */
+    Schema locate(final Decoder in) throws IOException {
+        for (final Step step : this.steps) {
+            if (step.branch >= 0 && in.readIndex() != step.branch) {
+                return null;
+            }
+            for (final Schema skipped : step.skipped) {
+                GenericDatumReader.skip(skipped, in);
+            }
+        }
+        if (this.target.getType() == Schema.Type.UNION) {
+            return this.target.getTypes().get(in.readIndex());
+        }
+        return this.target;
+    }
+
+    private static final class Step {
+        // Union branch of the record that contains the field, or -1 if the record is not part of a union
+        private final int branch;
+        private final Schema[] skipped;
+
+        private Step(final int branch, final Schema[] skipped) {
+            this.branch = branch;
+            this.skipped = skipped;
+        }
+    }
+}
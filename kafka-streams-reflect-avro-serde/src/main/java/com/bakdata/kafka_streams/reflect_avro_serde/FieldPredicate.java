@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Predicate over field values of encoded records, which is evaluated by {@link EncodedRecordFilter} without
+ * deserializing the records. Fields are given by dot-separated paths, such as {@code address.city}. A field that is
+ * not part of the writer schema, or whose enclosing optional record is not set, does not match.
+ */
+public abstract class FieldPredicate {
+    FieldPredicate() {
+    }
+
+    /**
+     * Matches null, numbers, strings, enum symbols and booleans. Numbers are compared by value regardless of their
+     * Avro type.
+     */
+    public static FieldPredicate equalTo(final String path, final Object value) {
+        if (value == null) {
+            return new Leaf(path, (schema, in, record) -> schema.getType() == Schema.Type.NULL);
+        }
+        if (value instanceof Number) {
+            return between(path, (Number) value, (Number) value);
+        }
+        if (value instanceof CharSequence) {
+            return stringCondition(path, value.toString(), false);
+        }
+        if (value instanceof Boolean) {
+            return new Leaf(path, (schema, in, record) -> schema.getType() == Schema.Type.BOOLEAN
+                    && in.readBoolean() == (Boolean) value);
+        }
+        throw new IllegalArgumentException("Cannot compare encoded values with " + value.getClass());
+    }
+
+    /**
+     * Matches numbers that are at least {@code min}.
+     */
+    public static FieldPredicate atLeast(final String path, final Number min) {
+        return between(path, Objects.requireNonNull(min), null);
+    }
+
+    /**
+     * Matches numbers that are at most {@code max}.
+     */
+    public static FieldPredicate atMost(final String path, final Number max) {
+        return between(path, null, Objects.requireNonNull(max));
+    }
+
+    /**
+     * Matches numbers between {@code min} and {@code max}, both inclusive. A null bound is unbounded.
+     */
+    public static FieldPredicate between(final String path, final Number min, final Number max) {
+        return new Leaf(path, (schema, in, record) -> {
+            switch (schema.getType()) {
+                case INT:
+                    return isBetween(in.readInt(), min, max);
+                case LONG:
+                    return isBetween(in.readLong(), min, max);
+                case FLOAT:
+                    return isBetween(in.readFloat(), min, max);
+                case DOUBLE:
+                    return isBetween(in.readDouble(), min, max);
+                default:
+                    return false;
+            }
+        });
+    }
+
+    /**
+     * Matches strings that start with the prefix.
+     */
+    public static FieldPredicate startsWith(final String path, final String prefix) {
+        return stringCondition(path, prefix, true);
+    }
+
+    public FieldPredicate and(final FieldPredicate other) {
+        return new Composite(this, other, true);
+    }
+
+    public FieldPredicate or(final FieldPredicate other) {
+        return new Composite(this, other, false);
+    }
+
+    /**
+     * Compiles this predicate into a matcher of records that are encoded with the writer schema.
+     */
+    abstract Matcher compile(Schema writer);
+
+    private static FieldPredicate stringCondition(final String path, final String expected, final boolean prefix) {
+        final byte[] bytes = expected.getBytes(StandardCharsets.UTF_8);
+        return new Leaf(path, (schema, in, record) -> {
+            switch (schema.getType()) {
+                case STRING:
+                    final Utf8 value = record.readString(in);
+                    final int length = prefix ? Math.min(bytes.length, value.getByteLength()) : value.getByteLength();
+                    return Arrays.equals(value.getBytes(), 0, length, bytes, 0, bytes.length);
+                case ENUM:
+                    final String symbol = schema.getEnumSymbols().get(in.readEnum());
+                    return prefix ? symbol.startsWith(expected) : symbol.equals(expected);
+                default:
+                    return false;
+            }
+        });
+    }
+
+    private static boolean isBetween(final long value, final Number min, final Number max) {
+        return (min == null || compare(value, min) >= 0) && (max == null || compare(value, max) <= 0);
+    }
+
+    private static boolean isBetween(final double value, final Number min, final Number max) {
+        return (min == null || Double.compare(value, min.doubleValue()) >= 0)
+                && (max == null || Double.compare(value, max.doubleValue()) <= 0);
+    }
+
+    private static int compare(final long value, final Number bound) {
+        if (bound instanceof Long || bound instanceof Integer || bound instanceof Short || bound instanceof Byte) {
+            return Long.compare(value, bound.longValue());
+        }
+        return Double.compare(value, bound.doubleValue());
+    }
+
+    @FunctionalInterface
+    interface Matcher {
+        boolean matches(EncodedRecord record) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean test(Schema schema, Decoder in, EncodedRecord record) throws IOException;
+    }
+
+    private static final class Leaf extends FieldPredicate {
+        private final String path;
+        private final Condition condition;
+
+        private Leaf(final String path, final Condition condition) {
+            this.path = Objects.requireNonNull(path);
+            this.condition = condition;
+        }
+
+        @Override
+        Matcher compile(final Schema writer) {
+            final FieldLocator locator = FieldLocator.compile(writer, this.path);
+            if (locator == null) {
+                return record -> false;
+            }
+            return record -> {
+                final Decoder in = record.rewind();
+                final Schema schema = locator.locate(in);
+                return schema != null && this.condition.test(schema, in, record);
+            };
+        }
+    }
+
+    private static final class Composite extends FieldPredicate {
+        private final FieldPredicate left;
+        private final FieldPredicate right;
+        private final boolean conjunction;
+
+        private Composite(final FieldPredicate left, final FieldPredicate right, final boolean conjunction) {
+            this.left = left;
+            this.right = Objects.requireNonNull(right);
+            this.conjunction = conjunction;
+        }
+
+        @Override
+        Matcher compile(final Schema writer) {
+            final Matcher leftMatcher = this.left.compile(writer);
+            final Matcher rightMatcher = this.right.compile(writer);
+            if (this.conjunction) {
+                return record -> leftMatcher.matches(record) && rightMatcher.matches(record);
+            }
+            return record -> leftMatcher.matches(record) || rightMatcher.matches(record);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache of values keyed by the identity of objects, such as the schema instances that Reflect2Data shares between
+ * records of the same shape. Keys are retained strongly, so the map is cleared when it holds its maximum number of
+ * keys. It is copied on insertion, so that lookups neither lock nor compute hash codes of the keys.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class IdentityCache<K, V> {
+    private final int maximumSize;
+    private volatile Map<K, V> map = new IdentityHashMap<>();
+
+    IdentityCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    V get(final K key) {
+        return this.map.get(key);
+    }
+
+    /**
+     * Returns the cached value of the key or computes it. Concurrent misses of the same key may compute it more than
+     * once, of which the first inserted value wins.
+     */
+    V get(final K key, final Function<? super K, ? extends V> loader) {
+        final V cached = this.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return this.put(key, loader.apply(key));
+    }
+
+    /**
+     * Inserts the value unless the key is already cached.
+     *
+     * @return the cached value of the key, which is the given value unless another one has been inserted before
+     */
+    synchronized V put(final K key, final V value) {
+        final V previous = this.map.get(key);
+        if (previous != null) {
+            return previous;
+        }
+        final Map<K, V> entries = this.map.size() >= this.maximumSize ? new IdentityHashMap<>()
+                : new IdentityHashMap<>(this.map);
+        entries.put(key, value);
+        this.map = entries;
+        return value;
+    }
+}
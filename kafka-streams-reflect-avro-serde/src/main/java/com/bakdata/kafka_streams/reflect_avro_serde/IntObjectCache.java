@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache of values keyed by primitive ints, which are the schema ids of the records read by a deserializer, filter or
+ * extractor. The table uses open addressing and is copied on insertion, so that lookups neither lock nor box the key.
+ *
+ * <p>An insertion costs time linear in the size of the table, which is acceptable because new schema ids only appear
+ * when the producers of a topic evolve their schemas, and lookups of known ids dominate. As ids are never reused
+ * for other schemas, the table is not evicted by entry but cleared once it holds the maximum number of ids, e.g.,
+ * after a deserializer has been reused for many topics.</p>
+ *
+ * @param <V> the type of values
+ */
+final class IntObjectCache<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private final int maximumSize;
+    private volatile Entry<V>[] table = newTable(INITIAL_CAPACITY);
+    private int size = 0;
+
+    IntObjectCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    V get(final int key) {
+        final Entry<V>[] entries = this.table;
+        final int mask = entries.length - 1;
+        for (int index = index(key, mask); ; index = (index + 1) & mask) {
+            final Entry<V> entry = entries[index];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.key == key) {
+                return entry.value;
+            }
+        }
+    }
+
+    /**
+     * Returns the cached value of the key or loads it. Loading happens outside of any lock, so concurrent misses of
+     * the same key may load it more than once, of which the first inserted value wins.
+     */
+    V get(final int key, final Loader<? extends V> loader) throws IOException, RestClientException {
+        final V cached = this.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return this.put(key, loader.load(key));
+    }
+
+    private synchronized V put(final int key, final V value) {
+        final V previous = this.get(key);
+        if (previous != null) {
+            return previous;
+        }
+        final Entry<V>[] entries;
+        if (this.size >= this.maximumSize) {
+            entries = newTable(INITIAL_CAPACITY);
+            this.size = 0;
+        } else if ((this.size + 1) * 2 > this.table.length) {
+            entries = this.rehash(this.table.length * 2);
+        } else {
+            entries = this.table.clone();
+        }
+        insert(entries, new Entry<>(key, value));
+        this.size++;
+        this.table = entries;
+        return value;
+    }
+
+    private Entry<V>[] rehash(final int capacity) {
+        final Entry<V>[] entries = newTable(capacity);
+        for (final Entry<V> entry : this.table) {
+            if (entry != null) {
+                insert(entries, entry);
+            }
+        }
+        return entries;
+    }
+
+    private static <V> void insert(final Entry<V>[] entries, final Entry<V> entry) {
+        final int mask = entries.length - 1;
+        int index = index(entry.key, mask);
+        while (entries[index] != null) {
+            index = (index + 1) & mask;
+        }
+        entries[index] = entry;
+    }
+
+    private static int index(final int key, final int mask) {
+        // Spread sequential ids over the table
+        return (key * 0x9E3779B9) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V>[] newTable(final int capacity) {
+        return new Entry[capacity];
+    }
+
+    @FunctionalInterface
+    interface Loader<V> {
+        V load(int key) throws IOException, RestClientException;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry<V> {
+        private final int key;
+        private final V value;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Side table from deserialized records to the bytes they were deserialized from, which serializers emit again instead
+ * of encoding unmodified records. It is shared by all serializers and deserializers of the JVM, so that records can
+ * be passed from the deserializer of an input topic to the serializer of an output topic.
+ */
+final class PassThroughTable {
+    private static final ConcurrentMap<Object, byte[]> ORIGINALS = new MapMaker().weakKeys().makeMap();
+
+    private PassThroughTable() {
+    }
+
+    static void put(final Object record, final byte[] original) {
+        ORIGINALS.put(record, original);
+    }
+
+    static byte[] get(final Object record) {
+        return ORIGINALS.get(record);
+    }
+
+    static void invalidate(final Object record) {
+        ORIGINALS.remove(record);
+    }
+}
@@ -25,9 +25,6 @@
 package com.bakdata.kafka_streams.reflect_avro_serde;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.reflect.TypeToken;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -37,40 +34,60 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.reflect.ByteBufferDecoder;
+import org.apache.avro.reflect.GeneratedDatumReader;
+import org.apache.avro.reflect.LazyViewFactory;
+import org.apache.avro.reflect.PooledDatumReader;
 import org.apache.avro.reflect.Reflect2Data;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 
+@Slf4j
 public class ReflectAvroDeserializer<T> implements Deserializer<T> {
     protected static final byte MAGIC_BYTE = 0;
+    private static final int PREFETCH_THREADS = 8;
+    static final int HEADER_SIZE = 1 + Integer.BYTES;
+    private static final int PARALLEL_CHUNK_SIZE = 256;
 
-    private final LoadingCache<Integer, DatumReader<T>> readerCache = CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .build(new CacheLoader<>() {
-                @SuppressWarnings("unchecked")
-                public DatumReader<T> load(final Integer id) throws IOException, RestClientException {
-                    final Schema schema = ReflectAvroDeserializer.this.schemaRegistryClient.getById(id);
-                    final Schema reader = ReflectAvroDeserializer.this.readerSchema == null ? schema
-                            : ReflectAvroDeserializer.this.readerSchema;
-                    return (DatumReader<T>) ReflectAvroDeserializer.this.data.createDatumReader(schema, reader);
-                }
-            });
+    private final IntObjectCache<DatumReader<T>> readerCache = new IntObjectCache<>(1000);
+    private final IntObjectCache<LazyViewFactory<T>> viewFactoryCache = new IntObjectCache<>(1000);
 
     @Getter(AccessLevel.PACKAGE)
     @VisibleForTesting
     private final Schema readerSchema;
-    private final Reflect2Data data = new Reflect2Data();
+    private final Reflect2Data data = Reflect2Data.get();
     private SchemaRegistryClient schemaRegistryClient;
     private final DecoderFactory decoderFactory = DecoderFactory.get();
-    private BinaryDecoder oldDecoder = null;
+    // Decoders are reused per thread, so that a deserializer can be shared by multiple threads
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private final ThreadLocal<ByteBufferDecoder> bufferDecoders = ThreadLocal.withInitial(ByteBufferDecoder::new);
+    private boolean generatedReaders = ReflectAvroSerdeConfig.GENERATED_READERS_DEFAULT;
+    private int reusePoolSize = ReflectAvroSerdeConfig.REUSE_POOL_SIZE_DEFAULT;
+    private SchemaStore schemaStore = null;
+    private List<String> projection = List.of();
+    private boolean passThrough = ReflectAvroSerdeConfig.PASS_THROUGH_DEFAULT;
+    private boolean lazyViews = ReflectAvroSerdeConfig.LAZY_VIEWS_DEFAULT;
 
     public ReflectAvroDeserializer() {
         this(null, (Type) null);
@@ -111,6 +128,70 @@ public class ReflectAvroDeserializer<T> implements Deserializer<T> {
                     new CachedSchemaRegistryClient(config.getSchemaRegistryUrls(), config.getMaxSchemasPerSubject(),
                             config.originalsWithPrefix(""));
         }
+        final ReflectAvroSerdeConfig reflectConfig = new ReflectAvroSerdeConfig(configs);
+        this.generatedReaders = reflectConfig.useGeneratedReaders();
+        this.reusePoolSize = reflectConfig.getReusePoolSize();
+        this.projection = reflectConfig.getProjection();
+        this.passThrough = reflectConfig.usePassThrough();
+        this.lazyViews = reflectConfig.useLazyViews();
+        this.schemaStore = SchemaStore.get(reflectConfig.getSchemaStoreDir(), configs);
+
+        final Set<String> subjects = new LinkedHashSet<>(reflectConfig.getPrefetchSubjects());
+        for (final String topic : reflectConfig.getPrefetchTopics()) {
+            subjects.add(topic + (isKey ? "-key" : "-value"));
+        }
+        if (!subjects.isEmpty()) {
+            this.prefetch(subjects);
+        }
+    }
+
+    /**
+     * Fetches all schema versions of the subjects and creates their readers in parallel. Failures are only logged, as
+     * the schemas are fetched again on their first use.
+     */
+    private void prefetch(final Collection<String> subjects) {
+        final ExecutorService executor = Executors.newFixedThreadPool(PREFETCH_THREADS);
+        try {
+            final List<CompletableFuture<List<Integer>>> idFutures = subjects.stream()
+                    .map(subject -> CompletableFuture.supplyAsync(() -> this.getIds(subject), executor))
+                    .collect(Collectors.toList());
+            final Set<Integer> ids = new LinkedHashSet<>();
+            idFutures.forEach(future -> ids.addAll(future.join()));
+
+            final CompletableFuture<?>[] readerFutures = ids.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> this.prefetchReader(id), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(readerFutures).join();
+            log.info("Prefetched {} schemas of subjects {}", ids.size(), subjects);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Integer> getIds(final String subject) {
+        try {
+            final List<Integer> ids = new ArrayList<>();
+            for (final Integer version : this.schemaRegistryClient.getAllVersions(subject)) {
+                ids.add(this.schemaRegistryClient.getSchemaMetadata(subject, version).getId());
+            }
+            return ids;
+        } catch (final IOException | RestClientException | RuntimeException e) {
+            log.warn("Cannot prefetch schemas of subject {}", subject, e);
+            return List.of();
+        }
+    }
+
+    private void prefetchReader(final int id) {
+        try {
+            this.readerCache.get(id, this::createReader);
+        } catch (final IOException | RestClientException | RuntimeException e) {
+            log.warn("Cannot prefetch schema {}", id, e);
+        }
+    }
+
+    @VisibleForTesting
+    DatumReader<T> getCachedReader(final int id) {
+        return this.readerCache.get(id);
     }
 
     @Override
@@ -119,29 +200,259 @@ public class ReflectAvroDeserializer<T> implements Deserializer<T> {
             return null;
         }
 
-        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        return this.deserialize(topic, data, 0, data.length);
+    }
+
+    /**
+     * Deserializes a record from a slice of a larger array, e.g., of a log segment, without copying it.
+     */
+    public T deserialize(final String topic, final byte[] data, final int offset, final int length) {
+        if (data == null) {
+            return null;
+        }
+
+        final int id = getId(data, offset, length);
+        if (this.lazyViews) {
+            final T record = this.createView(id, ByteBuffer.wrap(data, offset + HEADER_SIZE, length - HEADER_SIZE));
+            this.rememberOriginal(record, data, offset, length);
+            return record;
+        }
+        return this.read(this.getReader(id), id, data, offset, length);
+    }
+
+    /**
+     * Deserializes a record from the remaining bytes of the buffer without changing its position. Direct buffers, e.g.,
+     * of memory-mapped files, are read in place.
+     */
+    public T deserialize(final String topic, final ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.hasArray()) {
+            return this.deserialize(topic, data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+
+        if (data.remaining() < HEADER_SIZE || data.get(data.position()) != MAGIC_BYTE) {
+            throw new SerializationException("Error deserializing Avro message, Unknown magic byte!");
+        }
+        final int id = data.duplicate().order(ByteOrder.BIG_ENDIAN).getInt(data.position() + 1);
+        final ByteBuffer encoded = data.duplicate().position(data.position() + HEADER_SIZE);
+        final T record = this.lazyViews ? this.createView(id, encoded) : this.read(this.getReader(id), id, encoded);
+        if (this.passThrough && record != null) {
+            final byte[] original = new byte[data.remaining()];
+            data.duplicate().get(original);
+            PassThroughTable.put(record, original);
+        }
+        return record;
+    }
+
+    /**
+     * Creates a filter that evaluates the predicate on records serialized for this deserializer without deserializing
+     * them, so that only records that pass need to be deserialized. The deserializer must be configured.
+     */
+    public EncodedRecordFilter filter(final FieldPredicate predicate) {
+        return new EncodedRecordFilter(this, predicate);
+    }
+
+    /**
+     * Creates an extractor that reads the field from records serialized for this deserializer without deserializing
+     * them, e.g., to select keys for repartitioning. The deserializer must be configured.
+     */
+    public <K> EncodedFieldExtractor<K> extractor(final String path) {
+        return new EncodedFieldExtractor<>(this, path);
+    }
+
+    /**
+     * Deserializes a batch of records, e.g., of a poll, on the calling thread.
+     *
+     * @see #deserializeAll(String, List, ForkJoinPool)
+     */
+    public List<T> deserializeAll(final String topic, final List<byte[]> data) {
+        return this.deserializeAll(topic, data, null);
+    }
+
+    /**
+     * Deserializes a batch of records, e.g., of a poll, and returns them in the same order. The readers of all schemas
+     * of the batch are created before decoding. Batches of more than {@value #PARALLEL_CHUNK_SIZE} records are split
+     * into chunks that are decoded in parallel by the pool, if any. If the reuse pool is enabled, it must be larger
+     * than the batch, as records would be overwritten otherwise. If lazy views are enabled, views are returned as by
+     * {@link #deserialize(String, byte[])}, which are created on the calling thread as they defer decoding.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> deserializeAll(final String topic, final List<byte[]> data, final ForkJoinPool pool) {
+        if (this.lazyViews) {
+            final List<T> views = new ArrayList<>(data.size());
+            for (final byte[] serialized : data) {
+                views.add(this.deserialize(topic, serialized));
+            }
+            return views;
+        }
+
+        final byte[][] serialized = data.toArray(new byte[0][]);
+        final DatumReader<T>[] readers = new DatumReader[serialized.length];
+        for (int i = 0; i < serialized.length; i++) {
+            if (serialized[i] != null) {
+                readers[i] = this.getReader(getId(serialized[i], 0, serialized[i].length));
+            }
+        }
+
+        final Object[] records = new Object[serialized.length];
+        if (pool == null || serialized.length <= PARALLEL_CHUNK_SIZE) {
+            this.readAll(serialized, readers, records, 0, serialized.length);
+        } else {
+            pool.invoke(new ReadTask(serialized, readers, records, 0, serialized.length));
+        }
+        return (List<T>) Arrays.asList(records);
+    }
 
-        if (buffer.get() != MAGIC_BYTE) {
+    static int getId(final byte[] data, final int offset, final int length) {
+        if (length < HEADER_SIZE || data[offset] != MAGIC_BYTE) {
             throw new SerializationException("Error deserializing Avro message, Unknown magic byte!");
         }
 
-        final int id = buffer.getInt();
+        return (data[offset + 1] & 0xff) << 24 | (data[offset + 2] & 0xff) << 16 | (data[offset + 3] & 0xff) << 8
+                | data[offset + 4] & 0xff;
+    }
+
+    private DatumReader<T> getReader(final int id) {
         try {
-            final DatumReader<T> reader = this.readerCache.get(id);
-
-            final int length = buffer.remaining();
-            final int start = buffer.position();
-            return reader.read(null,
-                    this.oldDecoder =
-                            this.decoderFactory.binaryDecoder(buffer.array(), start, length, this.oldDecoder));
-        } catch (final IOException | RuntimeException | ExecutionException e) {
+            return this.readerCache.get(id, this::createReader);
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing Avro message for id " + id, e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+        }
+    }
+
+    private void readAll(final byte[][] serialized, final DatumReader<T>[] readers, final Object[] records,
+            final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (serialized[i] != null) {
+                final byte[] data = serialized[i];
+                records[i] = this.read(readers[i], getId(data, 0, data.length), data, 0, data.length);
+            }
+        }
+    }
+
+    private T read(final DatumReader<T> reader, final int id, final byte[] data, final int offset,
+            final int length) {
+        try {
+            final BinaryDecoder oldDecoder = this.decoders.get();
+            final BinaryDecoder decoder =
+                    this.decoderFactory.binaryDecoder(data, offset + HEADER_SIZE, length - HEADER_SIZE, oldDecoder);
+            if (decoder != oldDecoder) {
+                this.decoders.set(decoder);
+            }
+            final T record = reader.read(null, decoder);
+            this.rememberOriginal(record, data, offset, length);
+            return record;
+        } catch (final IOException | RuntimeException e) {
             // avro deserialization may throw AvroRuntimeException, NullPointerException, etc
             throw new SerializationException("Error deserializing Avro message for id " + id, e);
         }
     }
 
+    private T read(final DatumReader<T> reader, final int id, final ByteBuffer encoded) {
+        try {
+            return reader.read(null, this.bufferDecoders.get().configure(encoded));
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing Avro message for id " + id, e);
+        }
+    }
+
+    private T createView(final int id, final ByteBuffer encoded) {
+        try {
+            return this.viewFactoryCache.get(id, this::createViewFactory).create(encoded);
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing Avro message for id " + id, e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+        }
+    }
+
+    private void rememberOriginal(final T record, final byte[] data, final int offset, final int length) {
+        if (this.passThrough && record != null) {
+            final boolean whole = offset == 0 && length == data.length;
+            PassThroughTable.put(record, whole ? data : Arrays.copyOfRange(data, offset, offset + length));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DatumReader<T> createReader(final int id) throws IOException, RestClientException {
+        final Schema schema = this.getSchema(id);
+        final Schema reader = this.getReaderSchema(schema);
+        final DatumReader<T> datumReader = this.generatedReaders
+                ? this.data.createGeneratedDatumReader(schema, reader)
+                : (DatumReader<T>) this.data.createDatumReader(schema, reader);
+        // Generated readers that create records through constructors or builders cannot reuse them
+        final boolean reusable = !(datumReader instanceof GeneratedDatumReader)
+                || ((GeneratedDatumReader<T>) datumReader).isReusingRecords();
+        return this.reusePoolSize > 0 && reusable ? new PooledDatumReader<>(datumReader, this.reusePoolSize)
+                : datumReader;
+    }
+
+    private LazyViewFactory<T> createViewFactory(final int id) throws IOException, RestClientException {
+        final Schema schema = this.getSchema(id);
+        return this.data.createLazyViewFactory(schema, this.getReaderSchema(schema));
+    }
+
+    private Schema getReaderSchema(final Schema writer) {
+        final Schema target = this.readerSchema == null ? writer : this.readerSchema;
+        // Projections differ from the writer schema, so that the resolving reader skips all other fields
+        return this.projection.isEmpty() ? target : SchemaProjection.project(target, this.projection);
+    }
+
+    /**
+     * Returns the writer schema of the id from the schema store, if configured, or the schema registry.
+     */
+    Schema getSchema(final int id) throws IOException, RestClientException {
+        if (this.schemaStore == null) {
+            return this.schemaRegistryClient.getById(id);
+        }
+        final Schema storedSchema = this.schemaStore.getSchema(id);
+        if (storedSchema != null) {
+            return storedSchema;
+        }
+        final Schema schema = this.schemaRegistryClient.getById(id);
+        this.schemaStore.append(id, "", schema);
+        return schema;
+    }
+
     @Override
     public void close() {
 
     }
+
+    /**
+     * Reads a range of a batch, which is split in halves until it contains at most {@value #PARALLEL_CHUNK_SIZE}
+     * records. The per-thread decoders are reused by the workers of the pool.
+     */
+    private final class ReadTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final byte[][] serialized;
+        private final DatumReader<T>[] readers;
+        private final Object[] records;
+        private final int from;
+        private final int to;
+
+        private ReadTask(final byte[][] serialized, final DatumReader<T>[] readers, final Object[] records,
+                final int from, final int to) {
+            this.serialized = serialized;
+            this.readers = readers;
+            this.records = records;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_CHUNK_SIZE) {
+                ReflectAvroDeserializer.this.readAll(this.serialized, this.readers, this.records, this.from, this.to);
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ReadTask(this.serialized, this.readers, this.records, this.from, middle),
+                        new ReadTask(this.serialized, this.readers, this.records, middle, this.to));
+            }
+        }
+    }
 }
@@ -68,6 +68,14 @@ public class ReflectAvroSerde<T> implements Serde<T> {
                 new ReflectAvroDeserializer<>(client, target instanceof TypeVariable ? null : target));
     }
 
+    /**
+     * Marks a record as modified, so that it is encoded again instead of passing through the bytes it was
+     * deserialized from if {@link ReflectAvroSerdeConfig#PASS_THROUGH_CONFIG} is enabled.
+     */
+    public static void invalidate(final Object record) {
+        PassThroughTable.invalidate(record);
+    }
+
     public Serializer<T> serializer() {
         return this.inner.serializer();
     }
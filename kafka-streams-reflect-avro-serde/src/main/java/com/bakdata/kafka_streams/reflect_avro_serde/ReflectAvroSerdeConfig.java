@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigDef.Importance;
+import org.apache.kafka.common.config.ConfigDef.Type;
+
+/**
+ * Configuration of {@link ReflectAvroSerializer} and {@link ReflectAvroDeserializer} in addition to the configuration
+ * of the Confluent Avro Serde.
+ */
+public class ReflectAvroSerdeConfig extends AbstractConfig {
+    public static final String GENERATED_WRITERS_CONFIG = "reflect.avro.generated.writers";
+    public static final boolean GENERATED_WRITERS_DEFAULT = false;
+    public static final String GENERATED_WRITERS_DOC =
+            "Whether to write records with datum writers that are generated for each record class and schema "
+                    + "instead of the reflective datum writers of Avro.";
+    public static final String GENERATED_READERS_CONFIG = "reflect.avro.generated.readers";
+    public static final boolean GENERATED_READERS_DEFAULT = false;
+    public static final String GENERATED_READERS_DOC =
+            "Whether to read records with datum readers that are generated for each record class and schema "
+                    + "instead of the reflective datum readers of Avro. Only applies if the writer schema equals the "
+                    + "reader schema.";
+    public static final String REUSE_POOL_SIZE_CONFIG = "reflect.avro.reuse.pool.size";
+    public static final int REUSE_POOL_SIZE_DEFAULT = 0;
+    public static final String REUSE_POOL_SIZE_DOC =
+            "Number of records per thread and schema that the deserializer reuses instead of allocating new ones. "
+                    + "A deserialized record is overwritten after that many further records have been deserialized "
+                    + "on the same thread, so this must only be enabled if records are not retained, e.g., in "
+                    + "stateless map or filter steps. Records that generated readers create through constructors or "
+                    + "builders are never reused. Reuse is disabled if 0.";
+    public static final String PREFETCH_SUBJECTS_CONFIG = "reflect.avro.prefetch.subjects";
+    public static final String PREFETCH_SUBJECTS_DOC =
+            "Subjects of which all schema versions are fetched and whose readers are created in parallel when the "
+                    + "deserializer is configured, so that the first records of these schemas are not delayed.";
+    public static final String PREFETCH_TOPICS_CONFIG = "reflect.avro.prefetch.topics";
+    public static final String PREFETCH_TOPICS_DOC =
+            "Topics whose default key or value subject, i.e., <topic>-key or <topic>-value, is prefetched like "
+                    + "the subjects of " + PREFETCH_SUBJECTS_CONFIG + ".";
+    public static final String SCHEMA_STORE_DIR_CONFIG = "reflect.avro.schema.store.dir";
+    public static final String SCHEMA_STORE_DIR_DOC =
+            "Local directory in which the schemas retrieved from the schema registry are persisted and from which "
+                    + "they are loaded on startup, so that only unknown schemas are requested from the registry. "
+                    + "Schemas are not persisted if not set.";
+    public static final String PASS_THROUGH_CONFIG = "reflect.avro.pass.through";
+    public static final boolean PASS_THROUGH_DEFAULT = false;
+    public static final String PASS_THROUGH_DOC =
+            "Whether the deserializer remembers the bytes of each deserialized record, so that the serializer emits "
+                    + "them unchanged instead of encoding the record again. Records must not be modified after "
+                    + "deserialization unless they are passed to ReflectAvroSerde#invalidate(Object).";
+    public static final String LAZY_VIEWS_CONFIG = "reflect.avro.lazy.views";
+    public static final boolean LAZY_VIEWS_DEFAULT = false;
+    public static final String LAZY_VIEWS_DOC =
+            "Whether the deserializer returns views of the record classes that decode each field on the first call "
+                    + "of its getter. Views are generated subclasses, which retain the serialized bytes, and are "
+                    + "only available for non-final classes with getters for all fields. Records of other classes, "
+                    + "or read with another reader schema or a projection, are decoded eagerly.";
+    public static final String PROJECTION_CONFIG = "reflect.avro.projection";
+    public static final String PROJECTION_DOC =
+            "Dot-separated paths of the fields that the deserializer reads, e.g., address.city. All other fields are "
+                    + "skipped without being materialized and keep the value they have in a newly created record. "
+                    + "All fields are read if empty.";
+
+    private static final ConfigDef CONFIG = new ConfigDef()
+            .define(GENERATED_WRITERS_CONFIG, Type.BOOLEAN, GENERATED_WRITERS_DEFAULT, Importance.LOW,
+                    GENERATED_WRITERS_DOC)
+            .define(GENERATED_READERS_CONFIG, Type.BOOLEAN, GENERATED_READERS_DEFAULT, Importance.LOW,
+                    GENERATED_READERS_DOC)
+            .define(REUSE_POOL_SIZE_CONFIG, Type.INT, REUSE_POOL_SIZE_DEFAULT, ConfigDef.Range.atLeast(0),
+                    Importance.LOW, REUSE_POOL_SIZE_DOC)
+            .define(PREFETCH_SUBJECTS_CONFIG, Type.LIST, List.of(), Importance.LOW, PREFETCH_SUBJECTS_DOC)
+            .define(PREFETCH_TOPICS_CONFIG, Type.LIST, List.of(), Importance.LOW, PREFETCH_TOPICS_DOC)
+            .define(SCHEMA_STORE_DIR_CONFIG, Type.STRING, null, Importance.LOW, SCHEMA_STORE_DIR_DOC)
+            .define(PROJECTION_CONFIG, Type.LIST, List.of(), Importance.LOW, PROJECTION_DOC)
+            .define(PASS_THROUGH_CONFIG, Type.BOOLEAN, PASS_THROUGH_DEFAULT, Importance.LOW, PASS_THROUGH_DOC)
+            .define(LAZY_VIEWS_CONFIG, Type.BOOLEAN, LAZY_VIEWS_DEFAULT, Importance.LOW, LAZY_VIEWS_DOC);
+
+    public ReflectAvroSerdeConfig(final Map<?, ?> props) {
+        super(CONFIG, props);
+    }
+
+    public static ConfigDef config() {
+        return CONFIG;
+    }
+
+    public boolean useGeneratedWriters() {
+        return this.getBoolean(GENERATED_WRITERS_CONFIG);
+    }
+
+    public boolean useGeneratedReaders() {
+        return this.getBoolean(GENERATED_READERS_CONFIG);
+    }
+
+    public int getReusePoolSize() {
+        return this.getInt(REUSE_POOL_SIZE_CONFIG);
+    }
+
+    public List<String> getPrefetchSubjects() {
+        return this.getList(PREFETCH_SUBJECTS_CONFIG);
+    }
+
+    public List<String> getPrefetchTopics() {
+        return this.getList(PREFETCH_TOPICS_CONFIG);
+    }
+
+    public String getSchemaStoreDir() {
+        return this.getString(SCHEMA_STORE_DIR_CONFIG);
+    }
+
+    public List<String> getProjection() {
+        return this.getList(PROJECTION_CONFIG);
+    }
+
+    public boolean usePassThrough() {
+        return this.getBoolean(PASS_THROUGH_CONFIG);
+    }
+
+    public boolean useLazyViews() {
+        return this.getBoolean(LAZY_VIEWS_CONFIG);
+    }
+}
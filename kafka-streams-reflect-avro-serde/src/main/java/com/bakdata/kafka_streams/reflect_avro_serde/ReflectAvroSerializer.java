@@ -25,9 +25,6 @@
 package com.bakdata.kafka_streams.reflect_avro_serde;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.reflect.TypeToken;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -35,42 +32,61 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerDe;
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Value;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.LazyRecord;
 import org.apache.avro.reflect.Reflect2Data;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 
 public class ReflectAvroSerializer<T> implements Serializer<T> {
-    private final LoadingCache<Integer, DatumWriter<T>> writerCache = CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .build(new CacheLoader<>() {
-                @SuppressWarnings("unchecked")
-                public DatumWriter<T> load(final Integer id) {
-                    return (DatumWriter<T>) ReflectAvroSerializer.this.data
-                            .createDatumWriter(ReflectAvroSerializer.this.writerSchema);
-                }
-            });
+    private static final int PARALLEL_CHUNK_SIZE = 256;
+    private static final int MAX_WRITER_ENTRIES_PER_TOPIC = 1000;
+    private static final int SUBJECT_NOT_FOUND_ERROR_CODE = 40401;
+    private static final int SCHEMA_NOT_FOUND_ERROR_CODE = 40403;
+
+    /**
+     * Registered schemas and their writers per topic. Schemas are inferred per record, and Reflect2Data returns the
+     * same schema instance for records of the same shape, so that entries are looked up by schema identity. The
+     * entries of a topic are cleared when they exceed {@link #MAX_WRITER_ENTRIES_PER_TOPIC}.
+     */
+    private final ConcurrentMap<String, IdentityCache<Schema, WriterEntry<T>>> writerEntries =
+            new ConcurrentHashMap<>();
+    private final SchemaIdCache schemaIds = new SchemaIdCache();
+    private SchemaStore schemaStore = null;
+    // Whether the bytes of a deserialized record with the schema id may be emitted unchanged to the topic
+    private final ConcurrentMap<PassThroughKey, Boolean> passThroughIds = new ConcurrentHashMap<>();
+    private boolean passThrough = ReflectAvroSerdeConfig.PASS_THROUGH_DEFAULT;
 
     @Getter(AccessLevel.PACKAGE)
     @VisibleForTesting
-    private Schema writerSchema;
+    private final Schema writerSchema;
     private SchemaRegistryClient schemaRegistryClient;
-    private final Reflect2Data data = new Reflect2Data();
+    private final Reflect2Data data = Reflect2Data.get();
     private boolean autoRegisterSchema = true;
+    private boolean generatedWriters = ReflectAvroSerdeConfig.GENERATED_WRITERS_DEFAULT;
     private final EncoderFactory encoderFactory = EncoderFactory.get();
-    private BinaryEncoder oldEncoder = null;
+    private final ThreadLocal<SerializationBuffer> buffers = ThreadLocal.withInitial(SerializationBuffer::new);
     private final MyAbstractKafkaAvroSerDe serde = new MyAbstractKafkaAvroSerDe();
     private boolean isKey = false;
 
@@ -111,6 +127,10 @@ public class ReflectAvroSerializer<T> implements Serializer<T> {
         this.serde.configureClientProperties(config);
         this.isKey = isKey;
         this.autoRegisterSchema = config.autoRegisterSchema();
+        final ReflectAvroSerdeConfig reflectConfig = new ReflectAvroSerdeConfig(configs);
+        this.generatedWriters = reflectConfig.useGeneratedWriters();
+        this.passThrough = reflectConfig.usePassThrough();
+        this.schemaStore = SchemaStore.get(reflectConfig.getSchemaStoreDir(), config.getSchemaRegistryUrls());
         final Map<String, Object> originals = config.originalsWithPrefix("");
         if (this.schemaRegistryClient == null) {
             this.schemaRegistryClient = new CachedSchemaRegistryClient(config.getSchemaRegistryUrls(),
@@ -123,36 +143,204 @@ public class ReflectAvroSerializer<T> implements Serializer<T> {
         if (data == null) {
             return null;
         }
+        if (this.passThrough) {
+            final byte[] original = PassThroughTable.get(data);
+            if (original != null && !isModifiedView(data) && this.canPassThrough(topic, original, data)) {
+                return original;
+            }
+        }
+
+        return this.write(this.getWriterEntry(topic, data), data);
+    }
 
-        int id = -1;
+    /**
+     * Checks whether the record is a lazy view that may have been modified. Views do not need to be invalidated, as
+     * they track assignments themselves.
+     */
+    private static boolean isModifiedView(final Object data) {
+        return data instanceof LazyRecord && ((LazyRecord) data).getUnmodifiedSchema() == null;
+    }
+
+    /**
+     * Checks whether the schema of the original bytes is the one that this serializer would write to the topic, i.e.,
+     * it equals the writer schema or else the inferred schema of the record, and is registered for the subject of the
+     * topic. Records read with another reader schema, e.g., a projection, thus do not pass through.
+     */
+    private boolean canPassThrough(final String topic, final byte[] original, final T data) {
+        final int id = ReflectAvroDeserializer.getId(original, 0, original.length);
         try {
-            if (this.writerSchema == null) {
-                this.writerSchema = this.data.getSchema(data);
+            final Schema schema = this.writerSchema == null ? this.data.getSchema(data) : this.writerSchema;
+            final PassThroughKey key = new PassThroughKey(topic, id, schema);
+            final Boolean cached = this.passThroughIds.get(key);
+            if (cached != null) {
+                return cached;
             }
-            final String subject = this.serde.getSubjectName(topic, this.isKey, data, this.writerSchema);
-            id = this.storeOrRetrieveSchema(subject, this.writerSchema);
+            final boolean valid = this.isRegisteredWriterSchema(topic, id, schema, data);
+            this.passThroughIds.putIfAbsent(key, valid);
+            return valid;
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error serializing Avro message for id " + id, e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+        }
+    }
+
+    /**
+     * Serializes a batch of records on the calling thread.
+     *
+     * @see #serializeAll(String, List, Executor)
+     */
+    public byte[][] serializeAll(final String topic, final List<? extends T> data) {
+        return this.serializeAll(topic, data, null);
+    }
 
-            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-            out.write(0);
-            out.write(ByteBuffer.allocate(4).putInt(id).array());
-            final BinaryEncoder encoder =
-                    this.oldEncoder = this.encoderFactory.directBinaryEncoder(out, this.oldEncoder);
-            final DatumWriter<T> writer = this.writerCache.get(id);
+    /**
+     * Serializes a batch of records and returns them in the same order. The schemas and their ids are resolved for all
+     * records before encoding. Batches of more than {@value #PARALLEL_CHUNK_SIZE} records are split into chunks that
+     * are encoded in parallel by the executor, if any, each of its threads writing into its own buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public byte[][] serializeAll(final String topic, final List<? extends T> data, final Executor executor) {
+        final Object[] values = data.toArray();
+        final WriterEntry<T>[] entries = new WriterEntry[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                entries[i] = this.getWriterEntry(topic, (T) values[i]);
+            }
+        }
 
-            writer.write(data, encoder);
+        final byte[][] serialized = new byte[values.length][];
+        if (executor == null || values.length <= PARALLEL_CHUNK_SIZE) {
+            this.writeAll(entries, values, serialized, 0, values.length);
+            return serialized;
+        }
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < values.length; from += PARALLEL_CHUNK_SIZE) {
+            final int start = from;
+            final int end = Math.min(from + PARALLEL_CHUNK_SIZE, values.length);
+            futures.add(CompletableFuture.runAsync(() -> this.writeAll(entries, values, serialized, start, end),
+                    executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof SerializationException) {
+                throw (SerializationException) e.getCause();
+            }
+            throw new SerializationException("Error serializing Avro messages", e.getCause());
+        }
+        return serialized;
+    }
+
+    private boolean isRegisteredWriterSchema(final String topic, final int id, final Schema schema, final T data)
+            throws IOException, RestClientException {
+        if (!schema.equals(this.schemaRegistryClient.getById(id))) {
+            return false;
+        }
+        final String subject = this.serde.getSubjectName(topic, this.isKey, data, schema);
+        try {
+            // Only looks up the id, as the check must not register the schema for the subject as a side effect
+            return this.schemaIds.getId(subject, schema, () -> this.schemaRegistryClient.getId(subject, schema)) == id;
+        } catch (final RestClientException e) {
+            if (e.getErrorCode() == SUBJECT_NOT_FOUND_ERROR_CODE || e.getErrorCode() == SCHEMA_NOT_FOUND_ERROR_CODE) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private WriterEntry<T> getWriterEntry(final String topic, final T data) {
+        try {
+            final Schema schema = this.writerSchema == null ? this.data.getSchema(data) : this.writerSchema;
+            return this.getWriterEntry(topic, schema, data);
+        } catch (final IOException | RuntimeException e) {
+            throw new SerializationException("Error serializing Avro message", e);
+        } catch (final RestClientException e) {
+            throw new SerializationException("Error retrieving Avro schema", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeAll(final WriterEntry<T>[] entries, final Object[] values, final byte[][] serialized,
+            final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (values[i] != null) {
+                serialized[i] = this.write(entries[i], (T) values[i]);
+            }
+        }
+    }
+
+    private byte[] write(final WriterEntry<T> entry, final T data) {
+        try {
+            final SerializationBuffer out = this.buffers.get();
+            // The magic byte and id are written before the encoder buffers anything
+            final BinaryEncoder encoder = out.reset(this.encoderFactory);
+            out.write(ReflectAvroDeserializer.MAGIC_BYTE);
+            out.writeInt(entry.getId());
+            entry.getWriter().write(data, encoder);
             encoder.flush();
 
             return out.toByteArray();
-        } catch (final IOException | RuntimeException | ExecutionException e) {
+        } catch (final IOException | RuntimeException e) {
             // avro deserialization may throw AvroRuntimeException, NullPointerException, etc
-            throw new SerializationException("Error serializing Avro message for id " + id, e);
-        } catch (final RestClientException e) {
-            throw new SerializationException("Error retrieving Avro schema for id " + id, e);
+            throw new SerializationException("Error serializing Avro message for id " + entry.getId(), e);
+        }
+    }
+
+    private WriterEntry<T> getWriterEntry(final String topic, final Schema schema, final T data)
+            throws IOException, RestClientException {
+        IdentityCache<Schema, WriterEntry<T>> topicEntries = this.writerEntries.get(topic);
+        if (topicEntries == null) {
+            final IdentityCache<Schema, WriterEntry<T>> newEntries = new IdentityCache<>(MAX_WRITER_ENTRIES_PER_TOPIC);
+            topicEntries = this.writerEntries.putIfAbsent(topic, newEntries);
+            if (topicEntries == null) {
+                topicEntries = newEntries;
+            }
         }
+
+        final WriterEntry<T> cached = topicEntries.get(schema);
+        if (cached != null) {
+            return cached;
+        }
+        final String subject = this.serde.getSubjectName(topic, this.isKey, data, schema);
+        final WriterEntry<T> entry = new WriterEntry<>(this.storeOrRetrieveSchema(subject, schema),
+                this.createWriter(schema, data));
+        return topicEntries.put(schema, entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DatumWriter<T> createWriter(final Schema schema, final T data) {
+        // Generic and specific records are written by their specialized writers instead of through reflection
+        if (data instanceof SpecificRecord) {
+            return new SpecificDatumWriter<>(schema);
+        }
+        if (data instanceof GenericContainer) {
+            return new GenericDatumWriter<>(schema);
+        }
+        if (this.generatedWriters) {
+            return this.data.createGeneratedDatumWriter(schema);
+        }
+        return (DatumWriter<T>) this.data.createDatumWriter(schema);
     }
 
     private int storeOrRetrieveSchema(final String subject, final Schema schema)
             throws IOException, RestClientException {
+        return this.schemaIds.getId(subject, schema, () -> {
+            if (this.schemaStore == null) {
+                return this.registerOrRetrieveSchema(subject, schema);
+            }
+            final Integer storedId = this.schemaStore.getId(subject, schema);
+            if (storedId != null) {
+                return storedId;
+            }
+            final int id = this.registerOrRetrieveSchema(subject, schema);
+            this.schemaStore.append(id, subject, schema);
+            return id;
+        });
+    }
+
+    private int registerOrRetrieveSchema(final String subject, final Schema schema)
+            throws IOException, RestClientException {
         if (this.autoRegisterSchema) {
             return this.schemaRegistryClient.register(subject, schema);
         }
@@ -165,6 +353,19 @@ public class ReflectAvroSerializer<T> implements Serializer<T> {
 
     }
 
+    @Value
+    private static class PassThroughKey {
+        private final String topic;
+        private final int id;
+        private final Schema schema;
+    }
+
+    @Value
+    private static class WriterEntry<T> {
+        private final int id;
+        private final DatumWriter<T> writer;
+    }
+
     private static class MyAbstractKafkaAvroSerDe extends AbstractKafkaAvroSerDe {
         @Override
         protected void configureClientProperties(final AbstractKafkaAvroSerDeConfig config) {
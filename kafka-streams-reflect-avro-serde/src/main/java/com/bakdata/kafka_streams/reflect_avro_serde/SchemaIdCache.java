@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import com.google.common.collect.MapMaker;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.Value;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+/**
+ * Caches the registry ids of schemas by subject and the 64-bit fingerprint of their parsing canonical form, so that
+ * the registry client, which hashes and compares whole schemas under a lock, is only consulted once per schema.
+ *
+ * <p>Fingerprints are computed once per schema instance. As the parsing canonical form does not contain properties,
+ * such as {@code java-class}, an id is only reused if the fingerprint of the full schema matches as well.</p>
+ */
+final class SchemaIdCache {
+    private static final ConcurrentMap<Schema, Fingerprints> FINGERPRINTS = new MapMaker().weakKeys().makeMap();
+
+    private final ConcurrentMap<Key, Entry> ids = new ConcurrentHashMap<>();
+
+    int getId(final String subject, final Schema schema, final IdLoader loader)
+            throws IOException, RestClientException {
+        final Fingerprints fingerprints = getFingerprints(schema);
+        final Key key = new Key(subject, fingerprints.getParsing());
+        final Entry cached = this.ids.get(key);
+        if (cached != null && cached.getFull() == fingerprints.getFull()) {
+            return cached.getId();
+        }
+
+        final int id = loader.load();
+        this.ids.put(key, new Entry(fingerprints.getFull(), id));
+        return id;
+    }
+
+    static Fingerprints getFingerprints(final Schema schema) {
+        final Fingerprints cached = FINGERPRINTS.get(schema);
+        if (cached != null) {
+            return cached;
+        }
+        final Fingerprints fingerprints = new Fingerprints(SchemaNormalization.parsingFingerprint64(schema),
+                SchemaNormalization.fingerprint64(schema.toString().getBytes(StandardCharsets.UTF_8)));
+        FINGERPRINTS.putIfAbsent(schema, fingerprints);
+        return fingerprints;
+    }
+
+    @FunctionalInterface
+    interface IdLoader {
+        int load() throws IOException, RestClientException;
+    }
+
+    @Value
+    static class Fingerprints {
+        private final long parsing;
+        private final long full;
+    }
+
+    @Value
+    private static class Key {
+        private final String subject;
+        private final long fingerprint;
+    }
+
+    @Value
+    private static class Entry {
+        private final long full;
+        private final int id;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+
+/**
+ * Derives reader schemas that only contain selected fields. When records are read with such a reader schema, the
+ * resolving decoder skips all other fields on the wire without materializing them.
+ *
+ * <p>Fields are selected by dot-separated paths, such as {@code address.city}. A path selects the whole value of its
+ * last field. Paths descend through arrays, maps and unions into the contained records, and fields that the schema
+ * does not contain are ignored, as they may only exist in other versions of the schema.</p>
+ */
+final class SchemaProjection {
+    private SchemaProjection() {
+    }
+
+    static Schema project(final Schema schema, final Collection<String> paths) {
+        final Selection root = new Selection();
+        for (final String path : paths) {
+            Selection selection = root;
+            for (final String name : path.split("\\.")) {
+                if (selection.isComplete()) {
+                    break;
+                }
+                selection = selection.children.computeIfAbsent(name, ignored -> new Selection());
+            }
+            selection.children.clear();
+            selection.complete = true;
+        }
+        return project(schema, root);
+    }
+
+    private static Schema project(final Schema schema, final Selection selection) {
+        if (selection.isComplete()) {
+            return schema;
+        }
+        switch (schema.getType()) {
+            case RECORD:
+                return projectRecord(schema, selection);
+            case ARRAY:
+                return withProps(Schema.createArray(project(schema.getElementType(), selection)), schema);
+            case MAP:
+                return withProps(Schema.createMap(project(schema.getValueType(), selection)), schema);
+            case UNION:
+                final List<Schema> types = new ArrayList<>();
+                for (final Schema type : schema.getTypes()) {
+                    types.add(project(type, selection));
+                }
+                return Schema.createUnion(types);
+            default:
+                // Paths into primitive values select the whole value
+                return schema;
+        }
+    }
+
+    private static Schema projectRecord(final Schema schema, final Selection selection) {
+        final List<Field> fields = new ArrayList<>();
+        for (final Field field : schema.getFields()) {
+            final Selection child = selection.children.get(field.name());
+            if (child != null) {
+                final Field projected = new Field(field.name(), project(field.schema(), child), field.doc(),
+                        field.defaultVal());
+                field.getObjectProps().forEach(projected::addProp);
+                field.aliases().forEach(projected::addAlias);
+                fields.add(projected);
+            }
+        }
+        // The name is retained, so that the projection resolves against the writer schema and the same class
+        final Schema projected = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(),
+                schema.isError(), fields);
+        schema.getObjectProps().forEach(projected::addProp);
+        schema.getAliases().forEach(projected::addAlias);
+        return projected;
+    }
+
+    /**
+     * Copies the props of the original schema, such as the {@code java-class} that the reflect reader instantiates.
+     */
+    private static Schema withProps(final Schema projected, final Schema schema) {
+        schema.getObjectProps().forEach(projected::addProp);
+        return projected;
+    }
+
+    private static class Selection {
+        private final Map<String, Selection> children = new HashMap<>();
+        private boolean complete = false;
+
+        private boolean isComplete() {
+            return this.complete;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.kafka.common.config.ConfigDef;
+
+/**
+ * Local, append-only file of the schemas retrieved from a schema registry, so that a restarted application does not
+ * need to fetch them again. There is one file per registry and directory, which is shared by all serializers and
+ * deserializers of the JVM.
+ *
+ * <p>The file starts with a magic number and a version, followed by records of the form {@code length, crc32,
+ * payload} with the payload {@code id, parsing fingerprint, subject, schema}. The subject is empty for schemas
+ * retrieved by id. The file is memory-mapped while it is loaded. If a record is corrupt, e.g., after a crash during
+ * an append, the file is truncated before it, so that the preceding records are kept. If the header is corrupt, the
+ * file is discarded.</p>
+ *
+ * <p>The file is only opened while it is loaded or appended to, so that stores do not hold file descriptors.</p>
+ */
+@Slf4j
+final class SchemaStore {
+    private static final int MAGIC = 0x52415353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final ConcurrentMap<Path, SchemaStore> STORES = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final ConcurrentMap<Integer, Schema> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SubjectKey, Integer> ids = new ConcurrentHashMap<>();
+
+    private SchemaStore(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the store of the registry configured in the serde configs, or null if no directory or no registry URL
+     * is configured, e.g., because the registry client has been injected, or the store cannot be opened.
+     */
+    @SuppressWarnings("unchecked")
+    static SchemaStore get(final String directory, final Map<String, ?> configs) {
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        final Object urls = configs.get(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG);
+        if (urls == null) {
+            log.warn("Cannot identify schema store in {} without {}", directory,
+                    AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG);
+            return null;
+        }
+        return get(directory, (List<String>) ConfigDef.parseType(
+                AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, urls, ConfigDef.Type.LIST));
+    }
+
+    /**
+     * Returns the store of the registry in the directory, or null if no directory is configured or the store cannot
+     * be opened.
+     */
+    static SchemaStore get(final String directory, final List<String> registryUrls) {
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        final long registry = SchemaNormalization.fingerprint64(
+                String.join(",", registryUrls).getBytes(StandardCharsets.UTF_8));
+        final Path path = Paths.get(directory, "schemas-" + Long.toHexString(registry) + ".bin").toAbsolutePath();
+        try {
+            return STORES.computeIfAbsent(path, p -> {
+                try {
+                    return open(p);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            log.warn("Cannot open schema store {}", path, e);
+            return null;
+        }
+    }
+
+    static SchemaStore open(final Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        final SchemaStore store = new SchemaStore(path);
+        try (final FileChannel channel = openChannel(path); final FileLock ignored = channel.lock()) {
+            final long size = channel.size();
+            final long valid = size > 0 ? store.load(channel) : 0L;
+            if (valid < size) {
+                log.warn("Truncating corrupt schema store {} from {} to {} bytes", path, size, valid);
+                channel.truncate(valid);
+            }
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            }
+        }
+        log.info("Loaded {} schemas from {}", store.schemas.size(), path);
+        return store;
+    }
+
+    Schema getSchema(final int id) {
+        return this.schemas.get(id);
+    }
+
+    Integer getId(final String subject, final Schema schema) {
+        return this.ids.get(new SubjectKey(subject, SchemaIdCache.getFingerprints(schema).getFull()));
+    }
+
+    /**
+     * Appends the schema, which has been retrieved by id if the subject is empty.
+     */
+    synchronized void append(final int id, final String subject, final Schema schema) {
+        if (this.schemas.containsKey(id) && (subject.isEmpty() || this.getId(subject, schema) != null)) {
+            return;
+        }
+        final byte[] subjectBytes = subject.getBytes(StandardCharsets.UTF_8);
+        final byte[] schemaBytes = schema.toString().getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer payload = ByteBuffer.allocate(4 + 8 + 4 + subjectBytes.length + 4 + schemaBytes.length)
+                .putInt(id)
+                .putLong(SchemaIdCache.getFingerprints(schema).getParsing())
+                .putInt(subjectBytes.length).put(subjectBytes)
+                .putInt(schemaBytes.length).put(schemaBytes)
+                .flip();
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.remaining())
+                .putInt(payload.remaining())
+                .putInt(crc(payload.duplicate()))
+                .put(payload)
+                .flip();
+        try (final FileChannel channel = openChannel(this.path); final FileLock ignored = channel.lock()) {
+            if (channel.size() == 0) {
+                // The file has been removed since it was loaded
+                writeHeader(channel);
+            }
+            final long position = channel.size();
+            while (record.hasRemaining()) {
+                channel.write(record, position + record.position());
+            }
+        } catch (final IOException e) {
+            log.warn("Cannot append schema {} to schema store", id, e);
+        }
+        this.add(id, subject, schema);
+    }
+
+    /**
+     * Loads the records of the file up to the first corrupt one.
+     *
+     * @return the length of the valid prefix of the file, which is 0 if the header is corrupt
+     */
+    private long load(final FileChannel channel) throws IOException {
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return 0L;
+        }
+        long valid = buffer.position();
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            final int length = buffer.getInt();
+            final int crc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            final ByteBuffer payload = buffer.slice().limit(length);
+            if (crc(payload.duplicate()) != crc || !this.load(payload)) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+            valid = buffer.position();
+        }
+        return valid;
+    }
+
+    private boolean load(final ByteBuffer payload) {
+        try {
+            final int id = payload.getInt();
+            final long fingerprint = payload.getLong();
+            final String subject = readString(payload);
+            final Schema schema = new Schema.Parser().parse(readString(payload));
+            if (SchemaIdCache.getFingerprints(schema).getParsing() != fingerprint) {
+                return false;
+            }
+            this.add(id, subject, schema);
+            return true;
+        } catch (final RuntimeException e) {
+            log.debug("Corrupt schema store record", e);
+            return false;
+        }
+    }
+
+    private void add(final int id, final String subject, final Schema schema) {
+        this.schemas.putIfAbsent(id, schema);
+        if (!subject.isEmpty()) {
+            this.ids.put(new SubjectKey(subject, SchemaIdCache.getFingerprints(schema).getFull()), id);
+        }
+    }
+
+    private static FileChannel openChannel(final Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void writeHeader(final FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(final ByteBuffer buffer) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    @Value
+    private static class SubjectKey {
+        private final String subject;
+        private final long fingerprint;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+/**
+ * Growable buffer that serialized records are encoded into. It is meant to be reused per thread, so that each
+ * serialized record only allocates the exactly-sized result of {@link #toByteArray()}.
+ */
+final class SerializationBuffer extends OutputStream {
+    private static final int INITIAL_CAPACITY = 256;
+    // Buffers grown by exceptionally large records are not retained
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int count = 0;
+    private BinaryEncoder encoder = null;
+
+    /**
+     * Clears this buffer and returns a buffered encoder writing into it.
+     */
+    BinaryEncoder reset(final EncoderFactory encoderFactory) {
+        // Reconfiguring the encoder flushes bytes left over from a failed serialization, which are discarded below
+        this.encoder = encoderFactory.binaryEncoder(this, this.encoder);
+        if (this.buffer.length > MAX_RETAINED_CAPACITY) {
+            this.buffer = new byte[INITIAL_CAPACITY];
+        }
+        this.count = 0;
+        return this.encoder;
+    }
+
+    @Override
+    public void write(final int b) {
+        this.ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        this.ensureCapacity(this.count + len);
+        System.arraycopy(b, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    /**
+     * Writes the int in big-endian byte order, as required for the schema id of the Confluent wire format.
+     */
+    void writeInt(final int value) {
+        this.ensureCapacity(this.count + 4);
+        this.buffer[this.count] = (byte) (value >>> 24);
+        this.buffer[this.count + 1] = (byte) (value >>> 16);
+        this.buffer[this.count + 2] = (byte) (value >>> 8);
+        this.buffer[this.count + 3] = (byte) value;
+        this.count += 4;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length << 1));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+class FieldPredicateTest {
+    private static final Schema ADDRESS = SchemaBuilder.record("Address").fields()
+            .requiredString("city")
+            .requiredInt("zip")
+            .endRecord();
+    private static final Schema SCHEMA = SchemaBuilder.record("Record").fields()
+            .name("tags").type().array().items().stringType().noDefault()
+            .name("attributes").type().map().values().longType().noDefault()
+            .requiredString("name")
+            .requiredLong("count")
+            .requiredDouble("score")
+            .requiredBoolean("active")
+            .name("kind").type().enumeration("Kind").symbols("SMALL", "LARGE").noDefault()
+            .optionalString("comment")
+            .name("address").type().optional().type(ADDRESS)
+            .endRecord();
+
+    private static GenericRecord createRecord(final GenericRecord address) {
+        return new GenericRecordBuilder(SCHEMA)
+                .set("tags", List.of("a", "b"))
+                .set("attributes", Map.of("x", 1L))
+                .set("name", "bakdata")
+                .set("count", 42L)
+                .set("score", 0.5)
+                .set("active", true)
+                .set("kind", new GenericData.EnumSymbol(SCHEMA.getField("kind").schema(), "LARGE"))
+                .set("comment", null)
+                .set("address", address)
+                .build();
+    }
+
+    private static byte[] encode(final GenericRecord record) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(SCHEMA).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @SneakyThrows
+    private static boolean matches(final FieldPredicate predicate, final GenericRecord record) {
+        final byte[] bytes = encode(record);
+        return predicate.compile(SCHEMA).matches(new EncodedRecord().reset(bytes, 0, bytes.length));
+    }
+
+    @Test
+    void shouldCompareNumbers() {
+        final GenericRecord record = createRecord(null);
+        assertThat(matches(FieldPredicate.equalTo("count", 42), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("count", 42.0), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("count", 41L), record)).isFalse();
+        assertThat(matches(FieldPredicate.between("count", 40, 50), record)).isTrue();
+        assertThat(matches(FieldPredicate.atLeast("score", 0.75), record)).isFalse();
+        assertThat(matches(FieldPredicate.atMost("score", 0.5), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("name", 42), record)).isFalse();
+    }
+
+    @Test
+    void shouldCompareStringsEnumsAndBooleans() {
+        final GenericRecord record = createRecord(null);
+        assertThat(matches(FieldPredicate.equalTo("name", "bakdata"), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("name", "bak"), record)).isFalse();
+        assertThat(matches(FieldPredicate.startsWith("name", "bak"), record)).isTrue();
+        assertThat(matches(FieldPredicate.startsWith("name", "bakdata!"), record)).isFalse();
+        assertThat(matches(FieldPredicate.equalTo("kind", "LARGE"), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("active", true), record)).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("comment", null), record)).isTrue();
+    }
+
+    @Test
+    void shouldLocateNestedOptionalFields() {
+        final GenericRecord address = new GenericRecordBuilder(ADDRESS)
+                .set("city", "Berlin")
+                .set("zip", 10_115)
+                .build();
+        assertThat(matches(FieldPredicate.equalTo("address.zip", 10_115), createRecord(address))).isTrue();
+        assertThat(matches(FieldPredicate.equalTo("address.zip", 10_115), createRecord(null))).isFalse();
+        assertThat(matches(FieldPredicate.equalTo("unknown", 1), createRecord(address))).isFalse();
+    }
+
+    @Test
+    void shouldCombinePredicates() {
+        final GenericRecord record = createRecord(null);
+        final FieldPredicate large = FieldPredicate.equalTo("kind", "LARGE");
+        final FieldPredicate other = FieldPredicate.equalTo("name", "other");
+        assertThat(matches(large.and(other), record)).isFalse();
+        assertThat(matches(large.or(other), record)).isTrue();
+    }
+}
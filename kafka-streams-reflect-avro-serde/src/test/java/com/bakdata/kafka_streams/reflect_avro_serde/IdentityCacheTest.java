@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class IdentityCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String get(final IdentityCache<String, String> cache, final String key) {
+        return cache.get(key, k -> {
+            this.loads.incrementAndGet();
+            return "value of " + k;
+        });
+    }
+
+    @Test
+    void shouldCompareKeysByIdentity() {
+        final IdentityCache<String, String> cache = new IdentityCache<>(1000);
+        final String key = "key";
+        final String equalKey = new String(key);
+        assertThat(this.get(cache, key)).isEqualTo("value of key");
+        assertThat(this.get(cache, key)).isEqualTo("value of key");
+        assertThat(cache.get(equalKey)).isNull();
+        assertThat(this.get(cache, equalKey)).isEqualTo("value of key");
+        assertThat(this.loads).hasValue(2);
+    }
+
+    @Test
+    void shouldKeepFirstInsertedValue() {
+        final IdentityCache<String, String> cache = new IdentityCache<>(1000);
+        assertThat(cache.put("key", "first")).isEqualTo("first");
+        assertThat(cache.put("key", "second")).isEqualTo("first");
+        assertThat(cache.get("key")).isEqualTo("first");
+    }
+
+    @Test
+    void shouldClearWhenFull() {
+        final IdentityCache<String, String> cache = new IdentityCache<>(2);
+        final String first = "first";
+        final String second = "second";
+        final String third = "third";
+        this.get(cache, first);
+        this.get(cache, second);
+        this.get(cache, third);
+        assertThat(cache.get(first)).isNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isEqualTo("value of third");
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+class IntObjectCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @SneakyThrows
+    private static String get(final IntObjectCache<String> cache, final int key, final AtomicInteger loads) {
+        return cache.get(key, k -> {
+            loads.incrementAndGet();
+            return "value" + k;
+        });
+    }
+
+    @Test
+    void shouldLoadOnce() {
+        final IntObjectCache<String> cache = new IntObjectCache<>(1000);
+        assertThat(cache.get(1)).isNull();
+        assertThat(get(cache, 1, this.loads)).isEqualTo("value1");
+        assertThat(get(cache, 1, this.loads)).isEqualTo("value1");
+        assertThat(cache.get(1)).isEqualTo("value1");
+        assertThat(this.loads).hasValue(1);
+    }
+
+    @Test
+    void shouldGrow() {
+        final IntObjectCache<String> cache = new IntObjectCache<>(1000);
+        for (int key = -500; key < 500; key++) {
+            assertThat(get(cache, key, this.loads)).isEqualTo("value" + key);
+        }
+        for (int key = -500; key < 500; key++) {
+            assertThat(cache.get(key)).isEqualTo("value" + key);
+        }
+        assertThat(this.loads).hasValue(1000);
+    }
+
+    @Test
+    void shouldClearWhenFull() {
+        final IntObjectCache<String> cache = new IntObjectCache<>(2);
+        get(cache, 1, this.loads);
+        get(cache, 2, this.loads);
+        get(cache, 3, this.loads);
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("value3");
+    }
+}
@@ -32,11 +32,20 @@ import com.bakdata.schemaregistrymock.SchemaRegistryMock;
 import com.google.common.reflect.TypeToken;
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import lombok.SneakyThrows;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.reflect.LazyRecord;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -108,6 +117,20 @@ class ReflectAvroSerdeTest {
 
                 assertThatSchemaInSchemaRegistry(DynamicallyInferredType.this.fieldIsString);
             }
+
+            @Test
+            void shouldDeserializeWithoutRegistryUrl() {
+                final GenericClass<String> input = new GenericClass<>("test");
+
+                ReflectAvroSerializer<GenericClass<String>> serializer =
+                        configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+                final byte[] serialized = serializer.serialize(TOPIC, input);
+
+                final ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                        new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+                deserializer.configure(Map.of(), false);
+                assertThat(deserializer.deserialize(TOPIC, serialized)).isEqualTo(input);
+            }
         }
 
         @Nested
@@ -144,6 +167,451 @@ class ReflectAvroSerdeTest {
         }
     }
 
+    @Nested
+    class GeneratedDatumWritersAndReaders {
+        Schema fieldIsString = SchemaBuilder.record(GenericClass.class.getName()).fields()
+                .name("genericField").type().stringType().noDefault()
+                .endRecord();
+
+        private Map<String, Object> configs() {
+            return Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryClient.getUrl(),
+                    ReflectAvroSerdeConfig.GENERATED_WRITERS_CONFIG, true,
+                    ReflectAvroSerdeConfig.GENERATED_READERS_CONFIG, true);
+        }
+
+        @Test
+        void shouldDeSerializeWithDeSerializer() {
+            final GenericClass<String> input = new GenericClass<>("test");
+
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            serializer.configure(configs(), true);
+            final byte[] serialized = serializer.serialize(TOPIC, input);
+
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            deserializer.configure(configs(), true);
+            final GenericClass<String> deserialized = deserializer.deserialize("mock", serialized);
+
+            assertThat(deserialized).isEqualTo(input);
+
+            assertThatSchemaInSchemaRegistry(fieldIsString);
+        }
+
+        @Test
+        void shouldDeSerializeWithSerde() {
+            final GenericClass<String> input = new GenericClass<>("test");
+
+            ReflectAvroSerde<GenericClass<String>> serde =
+                    new ReflectAvroSerde<>(schemaRegistryClient.getSchemaRegistryClient());
+            serde.configure(configs(), true);
+            final byte[] serialized = serde.serializer().serialize(TOPIC, input);
+
+            final GenericClass<String> deserialized = serde.deserializer().deserialize("mock", serialized);
+
+            assertThat(deserialized).isEqualTo(input);
+
+            assertThatSchemaInSchemaRegistry(fieldIsString);
+        }
+    }
+
+    @Nested
+    class ReuseMode {
+        @Test
+        void shouldReuseDeserializedRecords() {
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized1 = serializer.serialize(TOPIC, new GenericClass<>("test1"));
+            final byte[] serialized2 = serializer.serialize(TOPIC, new GenericClass<>("test2"));
+
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            deserializer.configure(Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                    schemaRegistryClient.getUrl(), ReflectAvroSerdeConfig.REUSE_POOL_SIZE_CONFIG, 1), true);
+            final GenericClass<String> deserialized1 = deserializer.deserialize("mock", serialized1);
+            assertThat(deserialized1).isEqualTo(new GenericClass<>("test1"));
+            final GenericClass<String> deserialized2 = deserializer.deserialize("mock", serialized2);
+
+            assertThat(deserialized2).isSameAs(deserialized1).isEqualTo(new GenericClass<>("test2"));
+        }
+    }
+
+    @Nested
+    class SerializationBuffers {
+        @Test
+        void shouldSerializeIntoIndependentByteArrays() {
+            final GenericClass<String> large = new GenericClass<>("x".repeat(10_000));
+            final GenericClass<String> small = new GenericClass<>("test");
+
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serializedLarge = serializer.serialize(TOPIC, large);
+            final byte[] serializedSmall = serializer.serialize(TOPIC, small);
+
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(serializedSmall).hasSize(1 + 4 + 1 + 4);
+            assertThat(deserializer.deserialize("mock", serializedLarge)).isEqualTo(large);
+            assertThat(deserializer.deserialize("mock", serializedSmall)).isEqualTo(small);
+        }
+    }
+
+    @Nested
+    class Batches {
+        @Test
+        void shouldDeserializeAllInOrder() {
+            ReflectAvroSerializer<GenericClass<?>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final List<GenericClass<?>> records = new ArrayList<>();
+            final List<byte[]> serialized = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final GenericClass<?> record = i % 2 == 0 ? new GenericClass<>("test" + i) : new GenericClass<>(i);
+                records.add(record);
+                serialized.add(serializer.serialize(TOPIC, record));
+            }
+            records.add(null);
+            serialized.add(null);
+
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.deserializeAll(TOPIC, serialized)).isEqualTo(records);
+            assertThat(deserializer.deserializeAll(TOPIC, serialized, ForkJoinPool.commonPool()))
+                    .isEqualTo(records);
+        }
+
+        @Test
+        void shouldSerializeAllInOrder() {
+            final List<GenericClass<?>> records = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                records.add(i % 2 == 0 ? new GenericClass<>("test" + i) : new GenericClass<>(i));
+            }
+            records.add(null);
+
+            ReflectAvroSerializer<GenericClass<?>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[][] serialized = serializer.serializeAll(TOPIC, records, ForkJoinPool.commonPool());
+            assertThat(serialized).hasSameSizeAs(records);
+            assertThat(serializer.serializeAll(TOPIC, records)).isEqualTo(serialized);
+
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.deserializeAll(TOPIC, Arrays.asList(serialized))).isEqualTo(records);
+        }
+    }
+
+    @Nested
+    class BufferSlices {
+        @Test
+        void shouldDeserializeSlicesAndBuffers() {
+            final GenericClass<String> record = new GenericClass<>("test");
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized = serializer.serialize(TOPIC, record);
+            final byte[] padded = new byte[serialized.length + 6];
+            System.arraycopy(serialized, 0, padded, 3, serialized.length);
+            final ByteBuffer direct = ByteBuffer.allocateDirect(padded.length).put(padded);
+            direct.position(3).limit(3 + serialized.length);
+
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.deserialize(TOPIC, padded, 3, serialized.length)).isEqualTo(record);
+            assertThat(deserializer.deserialize(TOPIC, ByteBuffer.wrap(padded, 3, serialized.length)))
+                    .isEqualTo(record);
+            assertThat(deserializer.deserialize(TOPIC, direct)).isEqualTo(record);
+            assertThat(direct.position()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    class GenericRecords {
+        @Test
+        void shouldSerializeWithEmbeddedSchema() {
+            final Schema schema = SchemaBuilder.record("Record").fields().requiredInt("value").endRecord();
+            final GenericRecord record = new GenericRecordBuilder(schema).set("value", 42).build();
+
+            ReflectAvroSerializer<Object> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized = serializer.serialize(TOPIC, record);
+            assertThatSchemaInSchemaRegistry(schema);
+
+            ReflectAvroDeserializer<Object> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.deserialize(TOPIC, serialized))
+                    .isInstanceOfSatisfying(GenericRecord.class, read -> assertThat(read.get("value")).isEqualTo(42));
+        }
+    }
+
+    @Nested
+    class Projection {
+        @Test
+        void shouldOnlyReadProjectedFields() {
+            final Schema schema = SchemaBuilder.record("Record").fields()
+                    .requiredInt("value")
+                    .name("values").type().array().items().stringType().noDefault()
+                    .requiredString("name")
+                    .endRecord();
+            final GenericRecord record = new GenericRecordBuilder(schema)
+                    .set("value", 42)
+                    .set("values", List.of("a", "b"))
+                    .set("name", "test")
+                    .build();
+            ReflectAvroSerializer<Object> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized = serializer.serialize(TOPIC, record);
+
+            ReflectAvroDeserializer<Object> deserializer =
+                    new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            deserializer.configure(Map.of(
+                    AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryClient.getUrl(),
+                    ReflectAvroSerdeConfig.PROJECTION_CONFIG, "name"), false);
+            assertThat(deserializer.deserialize(TOPIC, serialized))
+                    .isInstanceOfSatisfying(GenericRecord.class, read -> {
+                        assertThat(read.getSchema().getFields()).hasSize(1);
+                        assertThat(read.get("name")).hasToString("test");
+                    });
+        }
+    }
+
+    @Nested
+    class EncodedFilters {
+        @Test
+        void shouldFilterSerializedRecords() {
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] foo = serializer.serialize(TOPIC, new GenericClass<>("foo"));
+            final byte[] bar = serializer.serialize(TOPIC, new GenericClass<>("bar"));
+
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final EncodedRecordFilter filter = deserializer.filter(FieldPredicate.equalTo("genericField", "foo"));
+            assertThat(filter.test(foo)).isTrue();
+            assertThat(filter.test(bar)).isFalse();
+            assertThat(filter.test(null)).isFalse();
+            assertThat(filter.test("key", foo)).isTrue();
+            assertThat(filter.test("key", null)).isFalse();
+        }
+
+        @Test
+        void shouldExtractFieldsFromSerializedRecords() {
+            final Schema address = SchemaBuilder.record("Address").fields().requiredString("city").endRecord();
+            final Schema schema = SchemaBuilder.record("Record").fields()
+                    .name("values").type().array().items().stringType().noDefault()
+                    .requiredLong("id")
+                    .name("address").type().optional().type(address)
+                    .endRecord();
+            final GenericRecord record = new GenericRecordBuilder(schema)
+                    .set("values", List.of("a", "b"))
+                    .set("id", 42L)
+                    .set("address", new GenericRecordBuilder(address).set("city", "Berlin").build())
+                    .build();
+            ReflectAvroSerializer<Object> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized = serializer.serialize(TOPIC, record);
+
+            ReflectAvroDeserializer<Object> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.<Long>extractor("id").apply(null, serialized)).isEqualTo(42L);
+            assertThat(deserializer.<String>extractor("address.city").extract(serialized)).isEqualTo("Berlin");
+            assertThat(deserializer.extractor("unknown").extract(serialized)).isNull();
+            assertThat(deserializer.extractor("id").extract(null)).isNull();
+        }
+    }
+
+    @Nested
+    class PassThrough {
+        private Map<String, Object> configs() {
+            return Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryClient.getUrl(),
+                    ReflectAvroSerdeConfig.PASS_THROUGH_CONFIG, true);
+        }
+
+        @Test
+        void shouldPassThroughUnmodifiedRecords() {
+            final ReflectAvroSerde<GenericClass<String>> serde =
+                    new ReflectAvroSerde<>(schemaRegistryClient.getSchemaRegistryClient());
+            serde.configure(configs(), false);
+            final byte[] serialized = serde.serializer().serialize(TOPIC, new GenericClass<>("foo"));
+
+            final GenericClass<String> record = serde.deserializer().deserialize(TOPIC, serialized);
+            // The schema is only registered for the subject of the input topic
+            assertThat(serde.serializer().serialize(TOPIC, record)).isSameAs(serialized);
+
+            record.setGenericField("bar");
+            ReflectAvroSerde.invalidate(record);
+            final byte[] reserialized = serde.serializer().serialize("output", record);
+            assertThat(reserialized).isNotSameAs(serialized);
+            assertThat(serde.deserializer().deserialize("output", reserialized)).isEqualTo(new GenericClass<>("bar"));
+        }
+
+        @Test
+        void shouldNotPassThroughProjectedRecords() {
+            final Schema schema = SchemaBuilder.record("Record").fields()
+                    .requiredInt("value")
+                    .requiredString("name")
+                    .endRecord();
+            final GenericRecord record = new GenericRecordBuilder(schema).set("value", 42).set("name", "test").build();
+            final ReflectAvroSerializer<Object> serializer =
+                    new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            serializer.configure(configs(), false);
+            final byte[] serialized = serializer.serialize(TOPIC, record);
+
+            final ReflectAvroDeserializer<Object> deserializer =
+                    new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            final Map<String, Object> configs = new HashMap<>(configs());
+            configs.put(ReflectAvroSerdeConfig.PROJECTION_CONFIG, "name");
+            deserializer.configure(configs, false);
+            final Object projected = deserializer.deserialize(TOPIC, serialized);
+
+            final byte[] reserialized = serializer.serialize("output", projected);
+            assertThat(reserialized).isNotEqualTo(serialized);
+            assertThat(deserializer.deserialize("output", reserialized))
+                    .isInstanceOfSatisfying(GenericRecord.class, read -> {
+                        assertThat(read.getSchema().getFields()).hasSize(1);
+                        assertThat(read.get("name")).hasToString("test");
+                    });
+        }
+
+        @Test
+        void shouldNotPassThroughModifiedViews() {
+            final ReflectAvroSerde<GenericClass<String>> serde =
+                    new ReflectAvroSerde<>(schemaRegistryClient.getSchemaRegistryClient());
+            final Map<String, Object> configs = new HashMap<>(configs());
+            configs.put(ReflectAvroSerdeConfig.LAZY_VIEWS_CONFIG, true);
+            serde.configure(configs, false);
+            final byte[] serialized = serde.serializer().serialize(TOPIC, new GenericClass<>("foo"));
+
+            final GenericClass<String> view = serde.deserializer().deserialize(TOPIC, serialized);
+            assertThat(view).isInstanceOf(LazyRecord.class);
+            assertThat(serde.serializer().serialize(TOPIC, view)).isSameAs(serialized);
+
+            view.setGenericField("bar");
+            final byte[] reserialized = serde.serializer().serialize(TOPIC, view);
+            assertThat(reserialized).isNotSameAs(serialized);
+            assertThat(serde.deserializer().deserialize(TOPIC, reserialized)).isEqualTo(new GenericClass<>("bar"));
+        }
+
+        @Test
+        void shouldNotPassThroughByDefault() {
+            ReflectAvroSerializer<GenericClass<String>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serialized = serializer.serialize(TOPIC, new GenericClass<>("foo"));
+            ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+
+            final GenericClass<String> record = deserializer.deserialize(TOPIC, serialized);
+            assertThat(serializer.serialize(TOPIC, record)).isNotSameAs(serialized).isEqualTo(serialized);
+        }
+    }
+
+    @Nested
+    class LazyViews {
+        @Test
+        void shouldDecodeViewsOnAccess() {
+            final ReflectAvroSerde<GenericClass<String>> serde =
+                    new ReflectAvroSerde<>(schemaRegistryClient.getSchemaRegistryClient());
+            serde.configure(Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                    schemaRegistryClient.getUrl(), ReflectAvroSerdeConfig.LAZY_VIEWS_CONFIG, true), false);
+            final byte[] serialized = serde.serializer().serialize(TOPIC, new GenericClass<>("foo"));
+
+            final GenericClass<String> view = serde.deserializer().deserialize(TOPIC, serialized);
+            assertThat(view).isInstanceOf(LazyRecord.class).isEqualTo(new GenericClass<>("foo"));
+            assertThat(serde.serializer().serialize("output", view)).isEqualTo(serialized);
+
+            view.setGenericField("bar");
+            final byte[] reserialized = serde.serializer().serialize("output", view);
+            assertThat(serde.deserializer().deserialize("output", reserialized)).isEqualTo(new GenericClass<>("bar"));
+        }
+
+        @Test
+        void shouldCreateViewsOfBatches() {
+            final ReflectAvroSerde<GenericClass<String>> serde =
+                    new ReflectAvroSerde<>(schemaRegistryClient.getSchemaRegistryClient());
+            serde.configure(Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                    schemaRegistryClient.getUrl(), ReflectAvroSerdeConfig.LAZY_VIEWS_CONFIG, true), false);
+            final byte[] serialized = serde.serializer().serialize(TOPIC, new GenericClass<>("foo"));
+
+            final ReflectAvroDeserializer<GenericClass<String>> deserializer =
+                    (ReflectAvroDeserializer<GenericClass<String>>) serde.deserializer();
+            final List<GenericClass<String>> views =
+                    deserializer.deserializeAll(TOPIC, Arrays.asList(serialized, null), ForkJoinPool.commonPool());
+            assertThat(views).hasSize(2).containsExactly(new GenericClass<>("foo"), null);
+            assertThat(views.get(0)).isInstanceOf(LazyRecord.class);
+        }
+    }
+
+    @Nested
+    class MixedDynamicallyInferredTypes {
+        Schema fieldIsString = SchemaBuilder.record(GenericClass.class.getName()).fields()
+                .name("genericField").type().stringType().noDefault()
+                .endRecord();
+        Schema fieldIsLong = SchemaBuilder.record(GenericClass.class.getName()).fields()
+                .name("genericField").type().longType().noDefault()
+                .endRecord();
+
+        @Test
+        @SneakyThrows
+        void shouldInferSchemaPerRecord() {
+            ReflectAvroSerializer<GenericClass<?>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            final byte[] serializedString = serializer.serialize(TOPIC, new GenericClass<>("test"));
+            final byte[] serializedLong = serializer.serialize(TOPIC, new GenericClass<>(42L));
+            final byte[] serializedString2 = serializer.serialize(TOPIC, new GenericClass<>("test2"));
+
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            assertThat(deserializer.deserialize("mock", serializedString)).isEqualTo(new GenericClass<>("test"));
+            assertThat(deserializer.deserialize("mock", serializedLong)).isEqualTo(new GenericClass<>(42L));
+            assertThat(deserializer.deserialize("mock", serializedString2)).isEqualTo(new GenericClass<>("test2"));
+
+            assertThat(schemaRegistryClient.getSchemaRegistryClient().getById(1)).isEqualTo(fieldIsString);
+            assertThat(schemaRegistryClient.getSchemaRegistryClient().getById(2)).isEqualTo(fieldIsLong);
+        }
+    }
+
+    @Nested
+    class Prefetch {
+        @BeforeEach
+        void registerSchemas() {
+            ReflectAvroSerializer<GenericClass<?>> serializer =
+                    configured(new ReflectAvroSerializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+            serializer.serialize(TOPIC, new GenericClass<>("test"));
+            serializer.serialize(TOPIC, new GenericClass<>(42L));
+        }
+
+        private ReflectAvroDeserializer<GenericClass<?>> configuredWith(final String config, final String value) {
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient());
+            deserializer.configure(Map.of(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                    schemaRegistryClient.getUrl(), config, value), true);
+            return deserializer;
+        }
+
+        @Test
+        void shouldPrefetchReadersOfTopics() {
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configuredWith(ReflectAvroSerdeConfig.PREFETCH_TOPICS_CONFIG, TOPIC);
+
+            assertThat(deserializer.getCachedReader(1)).isNotNull();
+            assertThat(deserializer.getCachedReader(2)).isNotNull();
+        }
+
+        @Test
+        void shouldPrefetchReadersOfSubjects() {
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configuredWith(ReflectAvroSerdeConfig.PREFETCH_SUBJECTS_CONFIG, TOPIC + "-key,unknown");
+
+            assertThat(deserializer.getCachedReader(1)).isNotNull();
+            assertThat(deserializer.getCachedReader(2)).isNotNull();
+        }
+
+        @Test
+        void shouldNotPrefetchByDefault() {
+            ReflectAvroDeserializer<GenericClass<?>> deserializer =
+                    configured(new ReflectAvroDeserializer<>(schemaRegistryClient.getSchemaRegistryClient()));
+
+            assertThat(deserializer.getCachedReader(1)).isNull();
+        }
+    }
+
     @Nested
     class LimitationsOfImplicitlyType {
         Schema fieldIsStringArray = SchemaBuilder.record(GenericClass.class.getName()).fields()
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+class SchemaIdCacheTest {
+    private static final String SCHEMA = "{\"type\":\"record\",\"name\":\"Record\",\"fields\":"
+            + "[{\"name\":\"values\",\"type\":{\"type\":\"array\",\"items\":\"int\"%s}}]}";
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final SchemaIdCache cache = new SchemaIdCache();
+
+    @SneakyThrows
+    private int getId(final String subject, final Schema schema) {
+        return this.cache.getId(subject, schema, this.lookups::incrementAndGet);
+    }
+
+    private static Schema parse(final String properties) {
+        return new Schema.Parser().parse(String.format(SCHEMA, properties));
+    }
+
+    @Test
+    void shouldCacheIdsOfEqualSchemas() {
+        assertThat(this.getId("subject", parse(""))).isEqualTo(1);
+        assertThat(this.getId("subject", parse(""))).isEqualTo(1);
+        assertThat(this.lookups).hasValue(1);
+    }
+
+    @Test
+    void shouldCacheIdsPerSubject() {
+        final Schema schema = parse("");
+        assertThat(this.getId("subject", schema)).isEqualTo(1);
+        assertThat(this.getId("other", schema)).isEqualTo(2);
+        assertThat(this.lookups).hasValue(2);
+    }
+
+    @Test
+    void shouldDistinguishSchemasWithSameParsingCanonicalForm() {
+        assertThat(this.getId("subject", parse(""))).isEqualTo(1);
+        assertThat(this.getId("subject", parse(",\"java-class\":\"java.util.LinkedList\""))).isEqualTo(2);
+        assertThat(this.lookups).hasValue(2);
+    }
+}
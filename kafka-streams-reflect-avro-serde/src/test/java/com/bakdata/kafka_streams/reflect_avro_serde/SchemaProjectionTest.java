@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+class SchemaProjectionTest {
+    private static final Schema ADDRESS = SchemaBuilder.record("Address").namespace("test").fields()
+            .requiredString("street")
+            .requiredString("city")
+            .endRecord();
+    private static final Schema PERSON = SchemaBuilder.record("Person").namespace("test")
+            .prop("java-class", "test.Person")
+            .fields()
+            .requiredString("name")
+            .requiredInt("age")
+            .name("address").type().optional().type(ADDRESS)
+            .name("previousAddresses").type().array().items(ADDRESS).noDefault()
+            .name("tags").type().map().values().stringType().noDefault()
+            .endRecord();
+
+    @Test
+    void shouldSelectFields() {
+        final Schema projected = SchemaProjection.project(PERSON, List.of("age", "tags"));
+        assertThat(projected.getFullName()).isEqualTo(PERSON.getFullName());
+        assertThat(projected.getProp("java-class")).isEqualTo("test.Person");
+        assertThat(projected.getFields()).extracting(Schema.Field::name).containsExactly("age", "tags");
+        assertThat(projected.getField("tags").schema()).isEqualTo(PERSON.getField("tags").schema());
+    }
+
+    @Test
+    void shouldSelectNestedFieldsThroughUnionsAndArrays() {
+        final Schema projected = SchemaProjection.project(PERSON, List.of("address.city", "previousAddresses.city"));
+        final Schema city = SchemaBuilder.record("Address").namespace("test").fields()
+                .requiredString("city")
+                .endRecord();
+        assertThat(projected.getField("address").schema())
+                .isEqualTo(Schema.createUnion(Schema.create(Schema.Type.NULL), city));
+        assertThat(projected.getField("previousAddresses").schema()).isEqualTo(Schema.createArray(city));
+    }
+
+    @Test
+    void shouldRetainPropsOfArraysAndMaps() {
+        final Schema addresses = Schema.createArray(ADDRESS);
+        addresses.addProp("java-class", "java.util.HashSet");
+        final Schema addressesByName = Schema.createMap(ADDRESS);
+        addressesByName.addProp("java-class", "java.util.TreeMap");
+        final Schema schema = SchemaBuilder.record("Company").namespace("test").fields()
+                .name("addresses").type(addresses).noDefault()
+                .name("addressesByName").type(addressesByName).noDefault()
+                .endRecord();
+
+        final Schema projected = SchemaProjection.project(schema, List.of("addresses.city", "addressesByName.city"));
+        final Schema projectedAddresses = projected.getField("addresses").schema();
+        assertThat(projectedAddresses.getProp("java-class")).isEqualTo("java.util.HashSet");
+        assertThat(projectedAddresses.getElementType().getFields()).extracting(Schema.Field::name)
+                .containsExactly("city");
+        assertThat(projected.getField("addressesByName").schema().getProp("java-class"))
+                .isEqualTo("java.util.TreeMap");
+    }
+
+    @Test
+    void shouldSelectWholeValueOfShorterPath() {
+        final Schema projected = SchemaProjection.project(PERSON, List.of("address.city", "address", "unknown"));
+        assertThat(projected.getFields()).extracting(Schema.Field::name).containsExactly("address");
+        assertThat(projected.getField("address").schema()).isEqualTo(PERSON.getField("address").schema());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 bakdata GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.bakdata.kafka_streams.reflect_avro_serde;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SchemaStoreTest {
+    private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Record\","
+            + "\"fields\":[{\"name\":\"value\",\"type\":\"int\"}]}");
+    private static final Schema OTHER_SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Other\","
+            + "\"fields\":[{\"name\":\"value\",\"type\":\"string\"}]}");
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.path = Files.createTempDirectory("schema-store").resolve("schemas.bin");
+    }
+
+    @Test
+    void shouldLoadAppendedSchemas() throws IOException {
+        final SchemaStore store = SchemaStore.open(this.path);
+        store.append(1, "topic-value", SCHEMA);
+        store.append(2, "", OTHER_SCHEMA);
+
+        final SchemaStore reopened = SchemaStore.open(this.path);
+        assertThat(reopened.getSchema(1)).isEqualTo(SCHEMA);
+        assertThat(reopened.getSchema(2)).isEqualTo(OTHER_SCHEMA);
+        assertThat(reopened.getId("topic-value", SCHEMA)).isEqualTo(1);
+        assertThat(reopened.getId("other-value", SCHEMA)).isNull();
+        assertThat(reopened.getId("topic-value", OTHER_SCHEMA)).isNull();
+    }
+
+    @Test
+    void shouldWriteCompleteRecords() throws IOException {
+        SchemaStore.open(this.path).append(1, "topic-value", SCHEMA);
+        final int payloadLength = 4 + 8 + 4 + "topic-value".length() + 4 + SCHEMA.toString().length();
+        assertThat(Files.size(this.path)).isEqualTo(8 + 8 + payloadLength);
+
+        final SchemaStore reopened = SchemaStore.open(this.path);
+        assertThat(reopened.getSchema(1)).isEqualTo(SCHEMA);
+        assertThat(Files.size(this.path)).isEqualTo(8 + 8 + payloadLength);
+    }
+
+    @Test
+    void shouldIgnoreCorruptFile() throws IOException {
+        SchemaStore.open(this.path).append(1, "topic-value", SCHEMA);
+        final byte[] bytes = Files.readAllBytes(this.path);
+        bytes[bytes.length - 2] ^= 1;
+        Files.write(this.path, bytes);
+
+        final SchemaStore reopened = SchemaStore.open(this.path);
+        assertThat(reopened.getSchema(1)).isNull();
+        reopened.append(2, "", OTHER_SCHEMA);
+        assertThat(SchemaStore.open(this.path).getSchema(2)).isEqualTo(OTHER_SCHEMA);
+    }
+
+    @Test
+    void shouldIgnoreTruncatedFile() throws IOException {
+        SchemaStore.open(this.path).append(1, "topic-value", SCHEMA);
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertThat(SchemaStore.open(this.path).getSchema(1)).isNull();
+    }
+
+    @Test
+    void shouldKeepRecordsBeforeCorruptRecord() throws IOException {
+        final SchemaStore store = SchemaStore.open(this.path);
+        store.append(1, "topic-value", SCHEMA);
+        final long validSize = Files.size(this.path);
+        store.append(2, "", OTHER_SCHEMA);
+        try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        final SchemaStore reopened = SchemaStore.open(this.path);
+        assertThat(reopened.getSchema(1)).isEqualTo(SCHEMA);
+        assertThat(reopened.getSchema(2)).isNull();
+        assertThat(Files.size(this.path)).isEqualTo(validSize);
+
+        reopened.append(2, "", OTHER_SCHEMA);
+        assertThat(SchemaStore.open(this.path).getSchema(2)).isEqualTo(OTHER_SCHEMA);
+    }
+
+    @Test
+    void shouldNotOpenStoreWithoutDirectory() {
+        assertThat(SchemaStore.get(null, List.of("http://localhost:8081"))).isNull();
+    }
+
+    @Test
+    void shouldNotOpenStoreWithoutRegistryUrl() {
+        assertThat(SchemaStore.get(this.path.getParent().toString(), Map.of())).isNull();
+    }
+
+    @Test
+    void shouldRecreateRemovedFile() throws IOException {
+        final SchemaStore store = SchemaStore.open(this.path);
+        store.append(1, "topic-value", SCHEMA);
+        Files.delete(this.path);
+
+        store.append(2, "", OTHER_SCHEMA);
+        final SchemaStore reopened = SchemaStore.open(this.path);
+        assertThat(reopened.getSchema(1)).isNull();
+        assertThat(reopened.getSchema(2)).isEqualTo(OTHER_SCHEMA);
+    }
+}